@@ -0,0 +1,130 @@
+package org.chintanpatel.springbootmanytoone.benchmark;
+
+import org.chintanpatel.springbootmanytoone.SpringBootManyToOneApplication;
+import org.chintanpatel.springbootmanytoone.SyntheticDataGenerator;
+import org.chintanpatel.springbootmanytoone.department.Department;
+import org.chintanpatel.springbootmanytoone.employee.Employee;
+import org.chintanpatel.springbootmanytoone.employee.EmployeePage;
+import org.chintanpatel.springbootmanytoone.employee.EmployeeService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Service hot paths against the embedded test database, seeded by SyntheticDataGenerator with `employees` rows over 10 departments.
+// Run: ./mvnw -Pbenchmark test-compile exec:exec            (all benchmarks, with -prof gc)
+//      ./mvnw -Pbenchmark test-compile exec:exec -Djmh.args="-prof gc -p employees=50000 -rf json -rff target/jmh-result.json nameSearch"
+// Throughput is reported in ops/ms, and the sample-time mode reports the p50/p90/p99/p99.9 latency of each call.
+
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+@Threads(1)
+public class EmployeeServiceBenchmark {
+
+    private static final int DEPARTMENTS = 10;
+
+    @Param({"1000", "10000"})
+    public int employees;
+
+    private final SyntheticDataGenerator generator = new SyntheticDataGenerator(42);
+    private ConfigurableApplicationContext context;
+    private EmployeeService employeeService;
+    private List<Department> departments;
+    private Long middleCursor;
+    private Employee updateTarget;
+    private long sequence;
+    // Rows past the seeded range are new unique employees for create and delete
+    private long nextIndex;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = new SpringApplicationBuilder(SpringBootManyToOneApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.main.banner-mode=off",
+                        "--logging.level.root=WARN",
+                        "--sql.monitor.enabled=false",
+                        "--spring.jpa.properties.hibernate.generate_statistics=false");
+        employeeService = context.getBean(EmployeeService.class);
+        departments = generator.seed(context, DEPARTMENTS, employees);
+        nextIndex = employees;
+
+        List<Employee> all = employeeService.getAllEmployeeList();
+        middleCursor = all.get(all.size() / 2).getId();
+        updateTarget = employeeService.getEmployeeById(all.getFirst().getId());
+        updateTarget.setDepartment(departments.getFirst());
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    Employee newEmployee() {
+        long index = nextIndex++;
+        return generator.employee(index, departments.get((int) (index % DEPARTMENTS)));
+    }
+
+    @Benchmark
+    public List<Employee> list() {
+        return employeeService.getAllEmployeeList();
+    }
+
+    @Benchmark
+    public EmployeePage pagedList() {
+        return employeeService.getEmployeePage(middleCursor, null, 50);
+    }
+
+    @Benchmark
+    public List<Employee> nameSearch() {
+        return employeeService.searchEmployeeByEmployeeName("maria");
+    }
+
+    @Benchmark
+    public List<Employee> departmentSearch() {
+        return employeeService.searchEmployeeByDepartmentName(generator.departmentName(3));
+    }
+
+    // Insert with the constraint-backed uniqueness check
+    @Benchmark
+    public Employee create() {
+        Employee employee = newEmployee();
+        employeeService.addEmployee(employee);
+        return employee;
+    }
+
+    // Versioned single-statement update; the service bumps the in-memory version after each call
+    @Benchmark
+    public Employee update() {
+        updateTarget.setSalary(BigDecimal.valueOf(1000 + (++sequence % 1000)));
+        employeeService.updateEmployee(updateTarget);
+        return updateTarget;
+    }
+
+    @Benchmark
+    public boolean delete(DeleteTarget target) {
+        return employeeService.deleteEmployeeById(target.id);
+    }
+
+    // Inserts the row each delete invocation removes; the insert is outside the measured call
+
+    @State(Scope.Thread)
+    public static class DeleteTarget {
+
+        Long id;
+
+        @Setup(Level.Invocation)
+        public void insert(EmployeeServiceBenchmark benchmark) {
+            Employee employee = benchmark.newEmployee();
+            benchmark.employeeService.addEmployee(employee);
+            id = employee.getId();
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package org.chintanpatel.springbootmanytoone.benchmark;
+
+import org.chintanpatel.springbootmanytoone.SpringBootManyToOneApplication;
+import org.chintanpatel.springbootmanytoone.SyntheticDataGenerator;
+import org.chintanpatel.springbootmanytoone.department.DepartmentService;
+import org.chintanpatel.springbootmanytoone.employee.EmployeePage;
+import org.chintanpatel.springbootmanytoone.employee.EmployeeService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.WebApplicationContext;
+import org.springframework.web.servlet.View;
+import org.springframework.web.servlet.ViewResolver;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Cost of rendering the list pages from an already loaded model, with the template cache off (the default,
+// templates re-read and re-parsed on every request) and on (the prod profile). No database work is measured.
+// Run: ./mvnw -Pbenchmark test-compile exec:exec -Djmh.args="-prof gc TemplateRenderBenchmark"
+
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+@Threads(1)
+public class TemplateRenderBenchmark {
+
+    private static final int DEPARTMENTS = 10;
+
+    @Param({"false", "true"})
+    public boolean templateCache;
+
+    @Param({"50", "500"})
+    public int rows;
+
+    private ConfigurableApplicationContext context;
+    private ViewResolver viewResolver;
+    private Map<String, Object> employeeModel;
+    private Map<String, Object> departmentModel;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = new SpringApplicationBuilder(SpringBootManyToOneApplication.class)
+                .web(WebApplicationType.SERVLET)
+                .run("--spring.main.banner-mode=off",
+                        "--logging.level.root=WARN",
+                        "--server.port=0",
+                        "--sql.monitor.enabled=false",
+                        "--spring.jpa.properties.hibernate.generate_statistics=false",
+                        "--spring.thymeleaf.cache=" + templateCache);
+        new SyntheticDataGenerator(42).seed(context, DEPARTMENTS, rows);
+        viewResolver = context.getBean("thymeleafViewResolver", ViewResolver.class);
+
+        EmployeePage employeePage = context.getBean(EmployeeService.class).getEmployeePage(null, null, rows);
+        employeeModel = Map.of("employeeList", employeePage.rows(), "employeePage", employeePage);
+        DepartmentService departmentService = context.getBean(DepartmentService.class);
+        departmentModel = Map.of("departmentList", departmentService.getAllDepartmentList(),
+                "departmentSummaries", departmentService.getDepartmentSummaries());
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    // Logic to resolve and render a view the way DispatcherServlet does, into an in-memory response
+
+    private String render(String viewName, Map<String, Object> model) throws Exception {
+        View view = viewResolver.resolveViewName(viewName, Locale.ENGLISH);
+        MockHttpServletRequest request = new MockHttpServletRequest(((WebApplicationContext) context).getServletContext(), "GET", "/");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        view.render(model, request, response);
+        return response.getContentAsString();
+    }
+
+    @Benchmark
+    public String employeeList() throws Exception {
+        return render("employee/employee-list", employeeModel);
+    }
+
+    @Benchmark
+    public String departmentList() throws Exception {
+        return render("department/department-list", departmentModel);
+    }
+}
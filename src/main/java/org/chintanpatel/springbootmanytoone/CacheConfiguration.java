@@ -0,0 +1,27 @@
+package org.chintanpatel.springbootmanytoone;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// @CacheEvict runs when the service method returns, before its transaction commits; a concurrent reader could
+// refill the cache from the old rows in between. Wrapping the cache manager defers puts and evictions to after commit.
+
+@Configuration(proxyBeanMethods = false)
+public class CacheConfiguration {
+
+    @Bean
+    static BeanPostProcessor transactionAwareCacheManagerPostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof CacheManager cacheManager && !(bean instanceof TransactionAwareCacheManagerProxy)) {
+                    return new TransactionAwareCacheManagerProxy(cacheManager);
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,26 @@
+package org.chintanpatel.springbootmanytoone;
+
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.util.Locale;
+
+// Names the database constraint behind a failed write, so each feature can map its own unique keys to a message
+
+public final class ConstraintViolations {
+
+    private ConstraintViolations() {
+    }
+
+    // Logic to find the constraint name Hibernate extracted, falling back to the driver's message when it has none;
+    // the result is lower case so callers can match it against the constraint names in the migrations
+
+    public static String constraintText(DataIntegrityViolationException ex) {
+        for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation && violation.getConstraintName() != null) {
+                return violation.getConstraintName().toLowerCase(Locale.ROOT);
+            }
+        }
+        return String.valueOf(ex.getMostSpecificCause().getMessage()).toLowerCase(Locale.ROOT);
+    }
+}
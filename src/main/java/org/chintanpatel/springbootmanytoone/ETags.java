@@ -0,0 +1,38 @@
+package org.chintanpatel.springbootmanytoone;
+
+// Strong entity tags for single resources, taken straight from the @Version column; a resource that embeds data
+// from a related row (an employee shows its department's name) tags both versions as "<version>-<related version>"
+
+public final class ETags {
+
+    private ETags() {
+    }
+
+    public static String of(Long version) {
+        return "\"" + version + "\"";
+    }
+
+    public static String of(Long version, Long relatedVersion) {
+        return "\"" + version + "-" + relatedVersion + "\"";
+    }
+
+    // Logic to read the version a client sent in If-Match; returns the current version for "*", null when unparseable.
+    // Only the resource's own version guards a write, so the related version of a combined tag is ignored
+
+    public static Long versionFromIfMatch(String ifMatch, Long currentVersion) {
+        String value = ifMatch.trim();
+        if (value.equals("*")) {
+            return currentVersion;
+        }
+        if (value.length() < 2 || !value.startsWith("\"") || !value.endsWith("\"")) {
+            return null;
+        }
+        String tag = value.substring(1, value.length() - 1);
+        int related = tag.indexOf('-');
+        try {
+            return Long.parseLong(related < 0 ? tag : tag.substring(0, related));
+        } catch (NumberFormatException ex) {
+            return null;
+        }
+    }
+}
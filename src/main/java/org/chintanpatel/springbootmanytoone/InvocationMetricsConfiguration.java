@@ -0,0 +1,52 @@
+package org.chintanpatel.springbootmanytoone;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.ClassFilter;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.StaticMethodMatcherPointcut;
+import org.springframework.aop.support.annotation.AnnotationClassFilter;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
+import org.springframework.core.Ordered;
+import org.springframework.data.repository.Repository;
+import org.springframework.stereotype.Service;
+
+import java.lang.reflect.Method;
+
+// Infrastructure advisors are picked up by the auto-proxy creator that already applies @Transactional and @Cacheable.
+// They are ordered first so the timers include transaction commit and cache lookups.
+
+@Configuration(proxyBeanMethods = false)
+public class InvocationMetricsConfiguration {
+
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    static Advisor serviceInvocationMetricsAdvisor(ObjectProvider<MeterRegistry> meterRegistry) {
+        return advisor(new AnnotationClassFilter(Service.class, true),
+                new InvocationMetricsInterceptor("app.service.invocations", meterRegistry));
+    }
+
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    static Advisor repositoryInvocationMetricsAdvisor(ObjectProvider<MeterRegistry> meterRegistry) {
+        return advisor(Repository.class::isAssignableFrom,
+                new InvocationMetricsInterceptor("app.repository.invocations", meterRegistry));
+    }
+
+    private static Advisor advisor(ClassFilter classFilter, InvocationMetricsInterceptor interceptor) {
+        StaticMethodMatcherPointcut pointcut = new StaticMethodMatcherPointcut() {
+            @Override
+            public boolean matches(Method method, Class<?> targetClass) {
+                return method.getDeclaringClass() != Object.class;
+            }
+        };
+        pointcut.setClassFilter(classFilter);
+        DefaultPointcutAdvisor advisor = new DefaultPointcutAdvisor(pointcut, interceptor);
+        advisor.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return advisor;
+    }
+}
@@ -0,0 +1,95 @@
+package org.chintanpatel.springbootmanytoone;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.repository.Repository;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Times each call through a service or repository proxy into one timer, tagged with
+// class, method, outcome, exception and a bucketed result size (buckets keep the tag cardinality bounded)
+
+public class InvocationMetricsInterceptor implements MethodInterceptor {
+
+    private final String metricName;
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+    private final Map<Class<?>, String> classNames = new ConcurrentHashMap<>();
+
+    public InvocationMetricsInterceptor(String metricName, ObjectProvider<MeterRegistry> meterRegistry) {
+        this.metricName = metricName;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+        if (registry == null) {
+            return invocation.proceed();
+        }
+        Timer.Sample sample = Timer.start(registry);
+        Object result = null;
+        Throwable error = null;
+        try {
+            result = invocation.proceed();
+            return result;
+        } catch (Throwable ex) {
+            error = ex;
+            throw ex;
+        } finally {
+            sample.stop(Timer.builder(metricName)
+                    .tags(Tags.of("class", className(invocation.getThis()),
+                            "method", invocation.getMethod().getName(),
+                            "outcome", error == null ? "SUCCESS" : "ERROR",
+                            "exception", error == null ? "none" : error.getClass().getSimpleName(),
+                            "result.size", error == null ? resultSize(result) : "none"))
+                    .register(registry));
+        }
+    }
+
+    // Repository beans are JDK proxies, so they are named after the repository interface rather than the proxy class
+
+    private String className(Object target) {
+        return classNames.computeIfAbsent(target.getClass(), t -> Arrays.stream(t.getInterfaces())
+                .filter(i -> i != Repository.class && Repository.class.isAssignableFrom(i))
+                .findFirst()
+                .orElse(t)
+                .getSimpleName());
+    }
+
+    static String resultSize(Object result) {
+        int size;
+        if (result instanceof Collection<?> collection) {
+            size = collection.size();
+        } else if (result instanceof Map<?, ?> map) {
+            size = map.size();
+        } else if (result instanceof Slice<?> slice) {
+            size = slice.getNumberOfElements();
+        } else if (result instanceof Optional<?> optional) {
+            size = optional.isPresent() ? 1 : 0;
+        } else {
+            return "none";
+        }
+        if (size <= 1) {
+            return String.valueOf(size);
+        }
+        if (size <= 10) {
+            return "2-10";
+        }
+        if (size <= 100) {
+            return "11-100";
+        }
+        if (size <= 1000) {
+            return "101-1000";
+        }
+        return "1001+";
+    }
+}
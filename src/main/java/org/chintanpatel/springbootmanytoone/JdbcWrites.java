@@ -0,0 +1,112 @@
+package org.chintanpatel.springbootmanytoone;
+
+import jakarta.persistence.EntityManager;
+import org.hibernate.Hibernate;
+import org.hibernate.cache.spi.access.EntityDataAccess;
+import org.hibernate.cache.spi.access.SoftLock;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+import org.hibernate.persister.entity.EntityPersister;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Supplier;
+
+// Single-statement writes for the repository fragments, run as plain SQL on the transaction's connection. A JPQL bulk
+// statement makes Hibernate invalidate the entity's whole second-level cache region; these touch only the ids written.
+
+public final class JdbcWrites {
+
+    private JdbcWrites() {
+    }
+
+    public interface Parameters {
+        void bind(PreparedStatement statement) throws SQLException;
+    }
+
+    // Logic to run one statement that writes the rows of entityClass with the given ids and return its row count.
+    // Pending changes go out first. Only the managed copies of those rows are detached, so everything else the caller's
+    // transaction has loaded stays managed. Their second-level cache entries are soft-locked before the statement and
+    // released when the transaction ends, as Hibernate does for its own updates and deletes: a reader that loaded the
+    // old row before the commit cannot put it back into the cache afterwards.
+
+    public static int execute(EntityManager entityManager, Class<?> entityClass, Collection<?> ids, String sql, Parameters parameters) {
+        SessionImplementor session = entityManager.unwrap(SessionImplementor.class);
+        session.flush();
+        lockRows(session, session.getFactory().getMappingMetamodel().getEntityDescriptor(entityClass), ids);
+        return session.doReturningWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                parameters.bind(statement);
+                return statement.executeUpdate();
+            }
+        });
+    }
+
+    // Logic to soft-lock the cached rows of entityClass ahead of a statement that changes them without naming them,
+    // such as a delete that cascades through a foreign key. The ids are only looked up when the entity is cached.
+
+    public static void lockCachedRows(EntityManager entityManager, Class<?> entityClass, Supplier<? extends Collection<?>> ids) {
+        SessionImplementor session = entityManager.unwrap(SessionImplementor.class);
+        EntityPersister persister = session.getFactory().getMappingMetamodel().getEntityDescriptor(entityClass);
+        if (persister.canWriteToCache()) {
+            lockRows(session, persister, ids.get());
+        }
+    }
+
+    // Logic to write the named attributes of a detached entity in one UPDATE guarded by its version, which also moves
+    // the version and updated_at on. Table and column names come from the entity's mapping, so they are declared once.
+    // Every named attribute is written: the edit forms post all of them, and without reading the row first there is
+    // nothing to tell the changed ones apart with.
+
+    public static int updateIfVersionMatches(EntityManager entityManager, Object entity, List<String> attributes, Instant updatedAt) {
+        SessionFactoryImplementor factory = entityManager.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class);
+        AbstractEntityPersister persister = (AbstractEntityPersister) factory.getMappingMetamodel().getEntityDescriptor(Hibernate.getClass(entity));
+        List<String> assignments = new ArrayList<>();
+        List<Object> values = new ArrayList<>();
+        for (String attribute : attributes) {
+            assignments.add(column(persister, attribute) + " = ?");
+            Object value = persister.getPropertyValue(entity, attribute);
+            // An association is written as its foreign key
+            values.add(value != null && persister.getPropertyType(attribute).isEntityType()
+                    ? factory.getPersistenceUnitUtil().getIdentifier(value) : value);
+        }
+        String version = persister.getVersionColumnName();
+        String sql = "update " + persister.getIdentifierTableName() + " set " + String.join(", ", assignments)
+                + ", " + version + " = " + version + " + 1, " + column(persister, "updatedAt") + " = ?"
+                + " where " + persister.getIdentifierColumnNames()[0] + " = ? and " + version + " = ?";
+        values.add(updatedAt.atOffset(ZoneOffset.UTC));
+        values.add(persister.getIdentifier(entity));
+        values.add(persister.getVersion(entity));
+        return execute(entityManager, persister.getMappedClass(), List.of(persister.getIdentifier(entity)), sql, statement -> {
+            for (int i = 0; i < values.size(); i++) {
+                statement.setObject(i + 1, values.get(i));
+            }
+        });
+    }
+
+    private static String column(AbstractEntityPersister persister, String attribute) {
+        return persister.getPropertyColumnNames(attribute)[0];
+    }
+
+    private static void lockRows(SessionImplementor session, EntityPersister persister, Collection<?> ids) {
+        EntityDataAccess cache = persister.canWriteToCache() ? persister.getCacheAccessStrategy() : null;
+        for (Object id : ids) {
+            Object managed = session.getPersistenceContextInternal().getEntity(session.generateEntityKey(id, persister));
+            if (managed != null) {
+                session.detach(managed);
+            }
+            if (cache != null) {
+                Object key = cache.generateCacheKey(id, persister, session.getFactory(), session.getTenantIdentifier());
+                SoftLock lock = cache.lockItem(session, key, null);
+                // Runs on commit and on rollback alike; the entry stays unreadable until then
+                session.getActionQueue().registerProcess((success, completed) -> cache.unlockItem(completed, key, lock));
+            }
+        }
+    }
+}
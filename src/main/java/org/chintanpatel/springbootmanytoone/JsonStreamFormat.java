@@ -0,0 +1,30 @@
+package org.chintanpatel.springbootmanytoone;
+
+import org.springframework.http.MediaType;
+
+// Framing for streamed JSON read endpoints: one object per line, or one server-sent event per object
+
+public enum JsonStreamFormat {
+
+    NDJSON(MediaType.APPLICATION_NDJSON),
+    SERVER_SENT_EVENTS(MediaType.TEXT_EVENT_STREAM);
+
+    private final MediaType mediaType;
+
+    JsonStreamFormat(MediaType mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    public MediaType getMediaType() {
+        return mediaType;
+    }
+
+    // Logic to pick the framing from the Accept header, NDJSON unless the client asks for an event stream
+
+    public static JsonStreamFormat fromAccept(String accept) {
+        if (accept != null && MediaType.parseMediaTypes(accept).stream().anyMatch(MediaType.TEXT_EVENT_STREAM::equalsTypeAndSubtype)) {
+            return SERVER_SENT_EVENTS;
+        }
+        return NDJSON;
+    }
+}
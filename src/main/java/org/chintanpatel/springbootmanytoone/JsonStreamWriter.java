@@ -0,0 +1,57 @@
+package org.chintanpatel.springbootmanytoone;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+// Writes a stream of objects as NDJSON or server-sent events. The stream is pulled one item at a time
+// and socket writes block while the client is behind, so a slow reader holds back whatever feeds the stream.
+
+@Component
+public class JsonStreamWriter {
+
+    private final JsonMapper jsonMapper;
+    private final int flushEvery;
+
+    public JsonStreamWriter(JsonMapper jsonMapper, @Value("${api.stream.flush-every:100}") int flushEvery) {
+        this.jsonMapper = jsonMapper;
+        this.flushEvery = flushEvery;
+    }
+
+    public long write(Stream<?> items, OutputStream output, JsonStreamFormat format) {
+        long count = 0;
+        Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+        try (items) {
+            Iterator<?> iterator = items.iterator();
+            while (iterator.hasNext()) {
+                String json = jsonMapper.writeValueAsString(iterator.next());
+                if (format == JsonStreamFormat.SERVER_SENT_EVENTS) {
+                    writer.write("data:");
+                    writer.write(json);
+                    writer.write("\n\n");
+                } else {
+                    writer.write(json);
+                    writer.write('\n');
+                }
+                // Push each batch to the client instead of holding it in the response buffer; events go out one by one
+                if (++count % flushEvery == 0 || format == JsonStreamFormat.SERVER_SENT_EVENTS) {
+                    writer.flush();
+                }
+            }
+            writer.flush();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return count;
+    }
+}
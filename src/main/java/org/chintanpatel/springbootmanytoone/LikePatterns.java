@@ -0,0 +1,15 @@
+package org.chintanpatel.springbootmanytoone;
+
+// LIKE and ILIKE patterns built from user input; '!' is the escape character, so the queries using them say escape '!'
+
+public final class LikePatterns {
+
+    private LikePatterns() {
+    }
+
+    // Logic to match the term literally anywhere in the value, so % and _ typed by the user are not wildcards
+
+    public static String contains(String term) {
+        return "%" + term.replace("!", "!!").replace("%", "!%").replace("_", "!_") + "%";
+    }
+}
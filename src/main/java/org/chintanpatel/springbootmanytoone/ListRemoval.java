@@ -0,0 +1,26 @@
+package org.chintanpatel.springbootmanytoone;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+// One row per listed table holding the last time a row left that list. Only read and moved on by the repositories'
+// list version queries, so the lists' Last-Modified never goes back when their newest row is removed.
+
+@Getter
+@NoArgsConstructor
+@Entity
+@Table(name = "list_removal")
+public class ListRemoval {
+    @Id
+    @Column(name = "table_name", nullable = false)
+    private String tableName;
+
+    @Column(name = "removed_at", nullable = false)
+    private Instant removedAt;
+}
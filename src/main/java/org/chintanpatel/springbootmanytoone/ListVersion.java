@@ -0,0 +1,34 @@
+package org.chintanpatel.springbootmanytoone;
+
+import java.time.Instant;
+
+// Row count and newest update time of a table; together they change whenever a row is added, edited or removed
+
+public record ListVersion(Long count, Instant lastModified) {
+
+    // Logic to also count the last time a row left the table (see ListRemoval), so lastModified never goes back when
+    // the newest row is removed and can be sent as Last-Modified
+
+    public ListVersion(Long count, Instant lastUpdated, Instant lastRemoved) {
+        this(count, later(lastUpdated, lastRemoved));
+    }
+
+    public String etag() {
+        return "W/\"" + count + "-" + lastModifiedMillis() + "\"";
+    }
+
+    // Logic to fold in the version of a table whose columns the listed rows embed, e.g. department names in the
+    // employee list; inserts and edits move the newest update time and deletes lower the count, so any change shows
+
+    public ListVersion including(ListVersion embedded) {
+        return new ListVersion(count + embedded.count(), later(lastModified, embedded.lastModified()));
+    }
+
+    public long lastModifiedMillis() {
+        return lastModified == null ? 0 : lastModified.toEpochMilli();
+    }
+
+    private static Instant later(Instant first, Instant second) {
+        return first == null || (second != null && second.isAfter(first)) ? second : first;
+    }
+}
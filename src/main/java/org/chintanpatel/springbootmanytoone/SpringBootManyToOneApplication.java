@@ -2,7 +2,9 @@ package org.chintanpatel.springbootmanytoone;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.cache.annotation.EnableCaching;
 
+@EnableCaching
 @SpringBootApplication
 public class SpringBootManyToOneApplication {
 
@@ -0,0 +1,94 @@
+package org.chintanpatel.springbootmanytoone;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.regex.Pattern;
+
+// Wraps the pool so every executed statement is timed and reported to SqlStatementRecorder.
+// Statements slower than the threshold are logged as prepared (bind values never reach the log) with string and numeric
+// literals masked.
+
+public class SqlMonitoringDataSource extends DelegatingDataSource {
+
+    private static final Logger log = LoggerFactory.getLogger(SqlMonitoringDataSource.class);
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    // Digits inside identifiers and aliases (t1_0, employee_seq2) are preceded or followed by a word character
+    private static final Pattern NUMERIC_LITERAL = Pattern.compile("(?<![\\w$.])\\d+(?:\\.\\d+)?(?:[eE][-+]?\\d+)?(?![\\w$])");
+
+    private final long slowThresholdNanos;
+
+    public SqlMonitoringDataSource(DataSource targetDataSource, long slowThresholdMillis) {
+        super(targetDataSource);
+        this.slowThresholdNanos = slowThresholdMillis * 1_000_000;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return monitored(obtainTargetDataSource().getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return monitored(obtainTargetDataSource().getConnection(username, password));
+    }
+
+    static String redact(String sql) {
+        if (sql == null) {
+            return null;
+        }
+        // Strings go first, so digits inside a quoted value are already gone when numbers are masked
+        return NUMERIC_LITERAL.matcher(STRING_LITERAL.matcher(sql).replaceAll("'?'")).replaceAll("?");
+    }
+
+    private Connection monitored(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{Connection.class}, (proxy, method, args) -> {
+            Object result = invoke(connection, method, args);
+            return switch (method.getName()) {
+                case "prepareStatement" -> monitored((Statement) result, (String) args[0], PreparedStatement.class);
+                case "prepareCall" -> monitored((Statement) result, (String) args[0], CallableStatement.class);
+                case "createStatement" -> monitored((Statement) result, null, Statement.class);
+                default -> result;
+            };
+        });
+    }
+
+    // Plain statements carry their SQL in the execute call, prepared ones were given it up front
+
+    private Object monitored(Statement statement, String preparedSql, Class<? extends Statement> type) {
+        return Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            if (!method.getName().startsWith("execute")) {
+                return invoke(statement, method, args);
+            }
+            String sql = preparedSql != null ? preparedSql : args != null && args.length > 0 && args[0] instanceof String s ? s : "<batch>";
+            long start = System.nanoTime();
+            try {
+                return invoke(statement, method, args);
+            } finally {
+                long elapsed = System.nanoTime() - start;
+                SqlStatementRecorder.record(sql);
+                if (elapsed >= slowThresholdNanos) {
+                    log.warn("Slow statement took {} ms: {}", elapsed / 1_000_000, redact(sql));
+                }
+            }
+        });
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException ex) {
+            throw ex.getTargetException();
+        }
+    }
+}
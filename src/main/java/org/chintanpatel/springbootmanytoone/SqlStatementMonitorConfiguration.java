@@ -0,0 +1,34 @@
+package org.chintanpatel.springbootmanytoone;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+// Statement monitoring replaces show_sql: on in tests, opt-in in production with SQL_MONITOR_ENABLED=true
+
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "sql.monitor.enabled", havingValue = "true")
+public class SqlStatementMonitorConfiguration {
+
+    @Bean
+    static BeanPostProcessor sqlMonitoringDataSourcePostProcessor(@Value("${sql.monitor.slow-threshold-ms:250}") long slowThresholdMillis) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof SqlMonitoringDataSource)) {
+                    return new SqlMonitoringDataSource(dataSource, slowThresholdMillis);
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    SqlStatementMonitorFilter sqlStatementMonitorFilter(@Value("${sql.monitor.repeat-threshold:3}") int repeatThreshold) {
+        return new SqlStatementMonitorFilter(repeatThreshold);
+    }
+}
@@ -0,0 +1,44 @@
+package org.chintanpatel.springbootmanytoone;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+// Counts the statements each request issues (logged at DEBUG) and warns when one statement repeats often enough to be an N+1
+
+public class SqlStatementMonitorFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(SqlStatementMonitorFilter.class);
+
+    private final int repeatThreshold;
+
+    public SqlStatementMonitorFilter(int repeatThreshold) {
+        this.repeatThreshold = repeatThreshold;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        try (SqlStatementRecorder.Recording recording = SqlStatementRecorder.start()) {
+            filterChain.doFilter(request, response);
+            if (recording.count() == 0) {
+                return;
+            }
+            if (recording.dropped() > 0) {
+                log.debug("{} {} issued {} statements, {} of them not captured", request.getMethod(), request.getRequestURI(),
+                        recording.count(), recording.dropped());
+            } else {
+                log.debug("{} {} issued {} statements", request.getMethod(), request.getRequestURI(), recording.count());
+            }
+            recording.repeated(repeatThreshold).forEach((sql, count) ->
+                    log.warn("Probable N+1 on {} {}: {} executions of {}", request.getMethod(), request.getRequestURI(),
+                            count, SqlMonitoringDataSource.redact(sql)));
+        }
+    }
+}
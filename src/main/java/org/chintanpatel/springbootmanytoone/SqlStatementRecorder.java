@@ -0,0 +1,86 @@
+package org.chintanpatel.springbootmanytoone;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Per-thread record of the SQL statements executed through SqlMonitoringDataSource.
+// A recording is opened around an HTTP request (SqlStatementMonitorFilter) or a test block; recordings nest,
+// and a statement counts towards every recording open on the thread. A recording keeps the text of its first
+// MAX_CAPTURED_STATEMENTS statements and only counts the rest, so a runaway request or batch job cannot grow it without bound.
+
+public final class SqlStatementRecorder {
+
+    static final int MAX_CAPTURED_STATEMENTS = 1000;
+
+    private static final ThreadLocal<Recording> CURRENT = new ThreadLocal<>();
+
+    private SqlStatementRecorder() {
+    }
+
+    public static Recording start() {
+        Recording recording = new Recording(CURRENT.get());
+        CURRENT.set(recording);
+        return recording;
+    }
+
+    static void record(String sql) {
+        for (Recording recording = CURRENT.get(); recording != null; recording = recording.parent) {
+            recording.add(sql);
+        }
+    }
+
+    public static final class Recording implements AutoCloseable {
+
+        private final Recording parent;
+        private final List<String> statements = new ArrayList<>();
+        private int dropped;
+
+        private Recording(Recording parent) {
+            this.parent = parent;
+        }
+
+        private void add(String sql) {
+            if (statements.size() < MAX_CAPTURED_STATEMENTS) {
+                statements.add(sql);
+            } else {
+                dropped++;
+            }
+        }
+
+        // Every statement executed, including the ones whose text was not kept
+
+        public int count() {
+            return statements.size() + dropped;
+        }
+
+        public int dropped() {
+            return dropped;
+        }
+
+        public List<String> statements() {
+            return Collections.unmodifiableList(statements);
+        }
+
+        // Logic to find identical statements executed at least `threshold` times among the captured ones, the usual shape
+        // of an N+1 select
+
+        public Map<String, Integer> repeated(int threshold) {
+            Map<String, Integer> counts = new LinkedHashMap<>();
+            statements.forEach(sql -> counts.merge(sql, 1, Integer::sum));
+            counts.values().removeIf(count -> count < threshold);
+            return counts;
+        }
+
+        @Override
+        public void close() {
+            if (parent == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(parent);
+            }
+        }
+    }
+}
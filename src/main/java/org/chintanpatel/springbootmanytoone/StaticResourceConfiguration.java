@@ -0,0 +1,58 @@
+package org.chintanpatel.springbootmanytoone;
+
+import jakarta.servlet.DispatcherType;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.CacheControl;
+import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistration;
+import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.resource.EncodedResourceResolver;
+import org.springframework.web.servlet.resource.ResourceUrlEncodingFilter;
+import org.springframework.web.servlet.resource.VersionResourceResolver;
+
+import java.time.Duration;
+
+// Stylesheets and scripts are linked with a content hash in the file name (bootstrap.min-<md5>.css), so a changed
+// file gets a new URL and those URLs can be cached for good; anything requested without a hash must be revalidated.
+// Precompressed .br/.gz siblings are served when accepted.
+
+@Configuration(proxyBeanMethods = false)
+public class StaticResourceConfiguration implements WebMvcConfigurer {
+
+    private final Duration maxAge;
+
+    public StaticResourceConfiguration(@Value("${static.resources.cache-max-age:365d}") Duration maxAge) {
+        this.maxAge = maxAge;
+    }
+
+    @Override
+    public void addResourceHandlers(ResourceHandlerRegistry registry) {
+        for (String folder : new String[]{"css", "js"}) {
+            // Content-hashed names never change meaning, so they are cached for good; the more specific pattern wins
+            resourceChain(registry.addResourceHandler("/" + folder + "/{file:.+-[0-9a-f]{32}\\.(?:css|js)}"), folder,
+                    CacheControl.maxAge(maxAge).cachePublic().immutable());
+            // Unversioned URLs and source maps keep their name across releases, so caches must revalidate them
+            resourceChain(registry.addResourceHandler("/" + folder + "/**"), folder, CacheControl.noCache());
+        }
+    }
+
+    private static void resourceChain(ResourceHandlerRegistration registration, String folder, CacheControl cacheControl) {
+        registration.addResourceLocations("classpath:/static/" + folder + "/")
+                .setCacheControl(cacheControl)
+                .resourceChain(true)
+                .addResolver(new EncodedResourceResolver())
+                .addResolver(new VersionResourceResolver().addContentVersionStrategy("/**"));
+    }
+
+    // Logic to rewrite @{/css/...} and @{/js/...} links in templates to their versioned URLs
+
+    @Bean
+    FilterRegistrationBean<ResourceUrlEncodingFilter> resourceUrlEncodingFilter() {
+        FilterRegistrationBean<ResourceUrlEncodingFilter> registration = new FilterRegistrationBean<>(new ResourceUrlEncodingFilter());
+        registration.setDispatcherTypes(DispatcherType.REQUEST, DispatcherType.ERROR);
+        return registration;
+    }
+}
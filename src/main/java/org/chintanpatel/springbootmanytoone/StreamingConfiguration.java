@@ -0,0 +1,56 @@
+package org.chintanpatel.springbootmanytoone;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+// StreamingResponseBody bodies of the /api/stream endpoints run on their own executor rather than on the shared
+// applicationTaskExecutor, whose queue is unbounded and whose threads also run DepartmentRemover jobs. At most
+// max-concurrent streams are written at once; with platform threads up to queue-capacity more wait for a thread,
+// with virtual threads none do. A stream past that is rejected and answered with 503. The request timeout comes
+// from spring.mvc.async.request-timeout. The executor is not a bean, because any Executor bean would stand in for
+// the applicationTaskExecutor Spring Boot otherwise creates.
+
+@Configuration(proxyBeanMethods = false)
+public class StreamingConfiguration implements WebMvcConfigurer, DisposableBean {
+
+    private final AsyncTaskExecutor streamingTaskExecutor;
+
+    public StreamingConfiguration(@Value("${stream.executor.max-concurrent:32}") int maxConcurrent,
+                                  @Value("${stream.executor.queue-capacity:64}") int queueCapacity,
+                                  @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        if (virtualThreads) {
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("stream-");
+            executor.setVirtualThreads(true);
+            executor.setConcurrencyLimit(maxConcurrent);
+            executor.setRejectTasksWhenLimitReached(true);
+            streamingTaskExecutor = executor;
+        } else {
+            ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+            executor.setThreadNamePrefix("stream-");
+            executor.setCorePoolSize(maxConcurrent);
+            executor.setMaxPoolSize(maxConcurrent);
+            executor.setQueueCapacity(queueCapacity);
+            executor.initialize();
+            streamingTaskExecutor = executor;
+        }
+    }
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        // Registered after Spring Boot's own configurer, so this replaces applicationTaskExecutor for MVC async work
+        configurer.setTaskExecutor(streamingTaskExecutor);
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        if (streamingTaskExecutor instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+    }
+}
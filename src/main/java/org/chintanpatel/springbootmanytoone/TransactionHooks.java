@@ -0,0 +1,27 @@
+package org.chintanpatel.springbootmanytoone;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+// Side effects outside the database (search index, in-memory state) that must only follow committed writes
+
+public final class TransactionHooks {
+
+    private TransactionHooks() {
+    }
+
+    // Logic to run the action after the surrounding transaction commits, or right away outside one
+
+    public static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
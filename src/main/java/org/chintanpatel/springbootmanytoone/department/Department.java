@@ -7,22 +7,46 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.Instant;
 
 @Getter
 @Setter
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.NONSTRICT_READ_WRITE, region = "department")
 @NoArgsConstructor
 @AllArgsConstructor
-@Table(name = "department")
+@Table(name = "department", uniqueConstraints = @UniqueConstraint(name = "department_department_name_key", columnNames = "department_name"))
 public class Department {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "department_seq")
+    @SequenceGenerator(name = "department_seq", sequenceName = "department_seq", allocationSize = 50)
     @Column(name = "department_id", nullable = false)
     private Long id;
 
+    @Version
+    @ColumnDefault("0")
+    @Column(name = "version", nullable = false)
+    private Long version;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    private Instant updatedAt;
+
     @Size(max = 255)
     @NotEmpty(message = "Please Provide Department Name")
     @Column(name = "department_name", nullable = false)
     private String departmentName;
 
+    // Set while a background removal job empties the department; hidden departments are left out of the department list
+
+    @ColumnDefault("false")
+    @Column(name = "deletion_pending", nullable = false)
+    private boolean deletionPending;
+
 }
\ No newline at end of file
@@ -0,0 +1,20 @@
+package org.chintanpatel.springbootmanytoone.department;
+
+import org.chintanpatel.springbootmanytoone.ConstraintViolations;
+import org.springframework.dao.DataIntegrityViolationException;
+
+// Raised when a write hits the unique constraint on department_name
+
+public class DepartmentAlreadyExistsException extends RuntimeException {
+
+    public DepartmentAlreadyExistsException(Throwable cause) {
+        super("Department already exists", cause);
+    }
+
+    // Logic to recognise the department name constraint, or null when another constraint failed
+
+    static DepartmentAlreadyExistsException from(DataIntegrityViolationException ex) {
+        String text = ConstraintViolations.constraintText(ex);
+        return text.contains("department_department_name_key") ? new DepartmentAlreadyExistsException(ex) : null;
+    }
+}
@@ -1,6 +1,8 @@
 package org.chintanpatel.springbootmanytoone.department;
 
 import jakarta.validation.Valid;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
@@ -16,9 +18,11 @@ import java.util.List;
 public class DepartmentController {
 
     private final DepartmentService departmentService;
+    private final DepartmentRemover departmentRemover;
 
-    public DepartmentController(DepartmentService departmentService) {
+    public DepartmentController(DepartmentService departmentService, DepartmentRemover departmentRemover) {
         this.departmentService = departmentService;
+        this.departmentRemover = departmentRemover;
     }
 
     // Logic to display all departments
@@ -27,6 +31,7 @@ public class DepartmentController {
     public String listDepartments(Model model){
         List<Department> departmentList = departmentService.getAllDepartmentList();
         model.addAttribute("departmentList", departmentList);
+        model.addAttribute("departmentSummaries", departmentService.getDepartmentSummaries());
         return "department/department-list";
     }
 
@@ -48,14 +53,23 @@ public class DepartmentController {
         }
         if (department.getId() != null) {
             department.setId(department.getId());
-            departmentService.updateDepartment(department);
+            try {
+                departmentService.updateDepartment(department);
+            } catch (DepartmentAlreadyExistsException ex) {
+                redirectAttributes.addFlashAttribute("errorMessage", ex.getMessage());
+                return "redirect:/departments/manageDepartment/" + department.getId();
+            } catch (OptimisticLockingFailureException ex) {
+                redirectAttributes.addFlashAttribute("errorMessage", "Department was changed by someone else, please review and save again");
+                return "redirect:/departments/manageDepartment/" + department.getId();
+            }
             redirectAttributes.addFlashAttribute("successMessage", "Department updated successfully");
         } else {
-            if (departmentService.isDepartmentExist(department.getDepartmentName())) {
-                redirectAttributes.addFlashAttribute("errorMessage", "Department already exists");
+            try {
+                departmentService.addDepartment(department);
+            } catch (DepartmentAlreadyExistsException ex) {
+                redirectAttributes.addFlashAttribute("errorMessage", ex.getMessage());
                 return "redirect:/departments/create";
             }
-            departmentService.addDepartment(department);
             redirectAttributes.addFlashAttribute("successMessage", "Department added successfully");
         }
         return "redirect:/departments";
@@ -75,16 +89,44 @@ public class DepartmentController {
         }
     }
 
-    // Logic to delete a department by id
+    // Logic to delete a department by id; one that still has employees is removed in the background instead
 
     @GetMapping("/departments/deleteDepartment/{id}")
     public String deleteDepartment(@PathVariable Long id, RedirectAttributes redirectAttributes) {
-        Department department = departmentService.getDepartmentById(id);
-        if (department != null) {
-            departmentService.deleteDepartmentById(id);
-            redirectAttributes.addFlashAttribute("successMessage", "Department deleted successfully");
-        } else {
-            redirectAttributes.addFlashAttribute("errorMessage", "Department not found");
+        try {
+            DepartmentRemovalStatus status = departmentRemover.deleteDepartment(id);
+            if (status == null) {
+                redirectAttributes.addFlashAttribute("errorMessage", "Department not found");
+            } else if (status.state() == DepartmentRemovalStatus.State.COMPLETED) {
+                redirectAttributes.addFlashAttribute("successMessage", "Department deleted successfully");
+            } else {
+                redirectAttributes.addFlashAttribute("successMessage",
+                        "Department removal started, deleting " + status.totalEmployees() + " employees in the background");
+            }
+        } catch (DepartmentRemovalConflictException ex) {
+            redirectAttributes.addFlashAttribute("errorMessage", ex.getMessage());
+        } catch (TaskRejectedException ex) {
+            redirectAttributes.addFlashAttribute("errorMessage", "Department removal could not be started, try again later");
+        }
+        return "redirect:/departments";
+    }
+
+    // Logic to remove a department with employees in the background; it disappears from the list straight away
+
+    @GetMapping("/departments/removeDepartment/{id}")
+    public String removeDepartment(@PathVariable Long id, RedirectAttributes redirectAttributes) {
+        try {
+            DepartmentRemovalStatus status = departmentRemover.startRemoval(id, DepartmentRemovalMode.DELETE_EMPLOYEES, null);
+            if (status == null) {
+                redirectAttributes.addFlashAttribute("errorMessage", "Department not found");
+            } else {
+                redirectAttributes.addFlashAttribute("successMessage",
+                        "Department removal started, deleting " + status.totalEmployees() + " employees in the background");
+            }
+        } catch (DepartmentRemovalConflictException ex) {
+            redirectAttributes.addFlashAttribute("errorMessage", ex.getMessage());
+        } catch (TaskRejectedException ex) {
+            redirectAttributes.addFlashAttribute("errorMessage", "Department removal could not be started, try again later");
         }
         return "redirect:/departments";
     }
@@ -0,0 +1,6 @@
+package org.chintanpatel.springbootmanytoone.department;
+
+// Published when a department row is deleted; its employees went with it through the ON DELETE CASCADE foreign key
+
+public record DepartmentDeletedEvent(Long departmentId) {
+}
@@ -0,0 +1,6 @@
+package org.chintanpatel.springbootmanytoone.department;
+
+// Published inside the deleting transaction just before a department row is deleted, while its employees still exist
+
+public record DepartmentDeletingEvent(Long departmentId) {
+}
@@ -0,0 +1,12 @@
+package org.chintanpatel.springbootmanytoone.department;
+
+import java.time.Instant;
+
+// Department as returned by the REST API
+
+public record DepartmentDto(Long id, Long version, String departmentName, Instant updatedAt) {
+
+    public static DepartmentDto from(Department department) {
+        return new DepartmentDto(department.getId(), department.getVersion(), department.getDepartmentName(), department.getUpdatedAt());
+    }
+}
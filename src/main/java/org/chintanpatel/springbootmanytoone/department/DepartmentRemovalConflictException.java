@@ -0,0 +1,10 @@
+package org.chintanpatel.springbootmanytoone.department;
+
+// Raised when a removal is requested for a department that another removal job is already emptying
+
+public class DepartmentRemovalConflictException extends RuntimeException {
+
+    public DepartmentRemovalConflictException() {
+        super("Department is already being removed");
+    }
+}
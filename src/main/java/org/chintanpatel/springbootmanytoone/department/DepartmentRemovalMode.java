@@ -0,0 +1,8 @@
+package org.chintanpatel.springbootmanytoone.department;
+
+// What a background removal does with the department's employees before the department row goes
+
+public enum DepartmentRemovalMode {
+    DELETE_EMPLOYEES,
+    REASSIGN_EMPLOYEES
+}
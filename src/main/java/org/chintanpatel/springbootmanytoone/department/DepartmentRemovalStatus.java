@@ -0,0 +1,50 @@
+package org.chintanpatel.springbootmanytoone.department;
+
+import java.time.Instant;
+
+// Progress of one background department removal, replaced with a new snapshot after every chunk
+
+public record DepartmentRemovalStatus(Long departmentId,
+                                      DepartmentRemovalMode mode,
+                                      Long targetDepartmentId,
+                                      State state,
+                                      long totalEmployees,
+                                      long processedEmployees,
+                                      Instant startedAt,
+                                      Instant finishedAt,
+                                      String error) {
+
+    public enum State {
+        RUNNING,
+        COMPLETED,
+        FAILED
+    }
+
+    static DepartmentRemovalStatus started(Long departmentId, DepartmentRemovalMode mode, Long targetDepartmentId, long totalEmployees) {
+        return new DepartmentRemovalStatus(departmentId, mode, targetDepartmentId, State.RUNNING, totalEmployees, 0, Instant.now(), null, null);
+    }
+
+    // An empty department deleted on the spot, without a job
+
+    static DepartmentRemovalStatus deleted(Long departmentId) {
+        Instant now = Instant.now();
+        return new DepartmentRemovalStatus(departmentId, DepartmentRemovalMode.DELETE_EMPLOYEES, null, State.COMPLETED, 0, 0, now, now, null);
+    }
+
+    DepartmentRemovalStatus progressed(long employees) {
+        long processed = processedEmployees + employees;
+        // Employees added while the job runs are processed too, so the total grows with them
+        return new DepartmentRemovalStatus(departmentId, mode, targetDepartmentId, state, Math.max(totalEmployees, processed),
+                processed, startedAt, null, null);
+    }
+
+    DepartmentRemovalStatus completed() {
+        return new DepartmentRemovalStatus(departmentId, mode, targetDepartmentId, State.COMPLETED, totalEmployees,
+                processedEmployees, startedAt, Instant.now(), null);
+    }
+
+    DepartmentRemovalStatus failed(String error) {
+        return new DepartmentRemovalStatus(departmentId, mode, targetDepartmentId, State.FAILED, totalEmployees,
+                processedEmployees, startedAt, Instant.now(), error);
+    }
+}
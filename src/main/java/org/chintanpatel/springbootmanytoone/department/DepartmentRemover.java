@@ -0,0 +1,122 @@
+package org.chintanpatel.springbootmanytoone.department;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import org.chintanpatel.springbootmanytoone.employee.EmployeeRepository;
+import org.chintanpatel.springbootmanytoone.employee.EmployeeService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+// Removes a department in the background: the department is hidden first, its employees are deleted or moved
+// in chunks of chunk-size, each chunk in its own short transaction, and the then-empty department row goes last.
+// Job status lives in this instance's memory only: behind a load balancer, poll the instance that started the job.
+// A finished job's status is kept for status-ttl so clients can read the outcome, then dropped.
+
+@Component
+public class DepartmentRemover {
+
+    private static final Logger log = LoggerFactory.getLogger(DepartmentRemover.class);
+    private static final Duration FOREVER = Duration.ofNanos(Long.MAX_VALUE);
+
+    private final DepartmentService departmentService;
+    private final EmployeeService employeeService;
+    private final EmployeeRepository employeeRepository;
+    private final AsyncTaskExecutor taskExecutor;
+    private final int chunkSize;
+    private final Map<Long, DepartmentRemovalStatus> statuses;
+
+    public DepartmentRemover(DepartmentService departmentService, EmployeeService employeeService,
+                             EmployeeRepository employeeRepository, AsyncTaskExecutor taskExecutor, @Value("${department.removal.chunk-size:500}") int chunkSize,
+                             @Value("${department.removal.status-ttl:1h}") Duration statusTtl) {
+        this.departmentService = departmentService;
+        this.employeeService = employeeService;
+        this.employeeRepository = employeeRepository;
+        this.taskExecutor = taskExecutor;
+        this.chunkSize = chunkSize;
+        // Running jobs never expire; the clock starts when a job completes or fails
+        Cache<Long, DepartmentRemovalStatus> cache = Caffeine.newBuilder()
+                .expireAfter(Expiry.writing((Long id, DepartmentRemovalStatus status) ->
+                        status.state() == DepartmentRemovalStatus.State.RUNNING ? FOREVER : statusTtl))
+                .build();
+        this.statuses = cache.asMap();
+    }
+
+    // Logic to hide the department and start its removal job; returns null when the department does not exist
+
+    public DepartmentRemovalStatus startRemoval(Long departmentId, DepartmentRemovalMode mode, Long targetDepartmentId) {
+        Department target = null;
+        if (mode == DepartmentRemovalMode.REASSIGN_EMPLOYEES) {
+            target = targetDepartmentId == null || targetDepartmentId.equals(departmentId) ? null : departmentService.getDepartmentById(targetDepartmentId);
+            if (target == null || target.isDeletionPending()) {
+                throw new IllegalArgumentException("Choose another existing department to move the employees to");
+            }
+        }
+        if (departmentService.getDepartmentVersion(departmentId) == null) {
+            return null;
+        }
+        if (!departmentService.markDepartmentForRemoval(departmentId)) {
+            throw new DepartmentRemovalConflictException();
+        }
+        DepartmentRemovalStatus status = DepartmentRemovalStatus.started(departmentId, mode, targetDepartmentId,
+                employeeRepository.countByDepartmentId(departmentId));
+        statuses.put(departmentId, status);
+        Department reassignTo = target;
+        try {
+            taskExecutor.execute(() -> remove(departmentId, mode, reassignTo));
+        } catch (TaskRejectedException ex) {
+            // No job will ever clear the flag, so the department is shown again before the caller hears of it
+            log.warn("Removal of department {} could not be started", departmentId, ex);
+            statuses.put(departmentId, status.failed("Removal could not be started, try again later"));
+            departmentService.unmarkDepartmentForRemoval(departmentId);
+            throw ex;
+        }
+        return status;
+    }
+
+    // Logic behind the plain delete actions: an empty department is deleted on the spot, one with employees gets a
+    // DELETE_EMPLOYEES job. A department another job is emptying is refused rather than deleted under it.
+
+    public DepartmentRemovalStatus deleteDepartment(Long departmentId) {
+        if (departmentService.deleteEmptyDepartmentById(departmentId)) {
+            return DepartmentRemovalStatus.deleted(departmentId);
+        }
+        // Missing, not empty or already being removed; startRemoval tells the three apart
+        return startRemoval(departmentId, DepartmentRemovalMode.DELETE_EMPLOYEES, null);
+    }
+
+    public DepartmentRemovalStatus getRemovalStatus(Long departmentId) {
+        return statuses.get(departmentId);
+    }
+
+    private void remove(Long departmentId, DepartmentRemovalMode mode, Department target) {
+        try {
+            List<Long> ids;
+            while (!(ids = employeeRepository.findIdsByDepartmentId(departmentId, Limit.of(chunkSize))).isEmpty()) {
+                List<Long> chunk = ids;
+                if (mode == DepartmentRemovalMode.DELETE_EMPLOYEES) {
+                    employeeService.deleteEmployeesByIds(chunk);
+                } else {
+                    employeeService.reassignEmployees(chunk, target.getId());
+                }
+                statuses.computeIfPresent(departmentId, (id, status) -> status.progressed(chunk.size()));
+            }
+            departmentService.deleteDepartmentById(departmentId);
+            statuses.computeIfPresent(departmentId, (id, status) -> status.completed());
+        } catch (RuntimeException ex) {
+            log.warn("Removal of department {} failed", departmentId, ex);
+            statuses.computeIfPresent(departmentId, (id, status) -> status.failed(ex.getMessage()));
+            // Show the department again so the remaining employees stay reachable
+            departmentService.unmarkDepartmentForRemoval(departmentId);
+        }
+    }
+}
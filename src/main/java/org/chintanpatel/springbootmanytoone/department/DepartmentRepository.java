@@ -1,10 +1,77 @@
 package org.chintanpatel.springbootmanytoone.department;
 
+import jakarta.persistence.QueryHint;
+import org.chintanpatel.springbootmanytoone.ListVersion;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+import java.util.Optional;
+
 @Repository("departmentRepository")
-public interface DepartmentRepository extends JpaRepository<Department, Long> {
+public interface DepartmentRepository extends JpaRepository<Department, Long>, DepartmentRepositoryCustom {
+
+    // Cacheable in the query cache when hibernate.cache.use_query_cache is enabled
+
+    @Override
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<Department> findAll();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<Department>findByDeletionPendingFalse();
 
     boolean existsByDepartmentName(String departmentName);
-}
\ No newline at end of file
+
+    // Case-insensitive LIKE; the pattern comes from LikePatterns, which escapes with '!'
+
+    @Query("select d.id from Department d where lower(d.departmentName)like lower(:pattern) escape '!'")
+    List<Long>findIdsByDepartmentNameLike(String pattern);
+
+    // Deletes by primary key in one statement; employees go with it through the ON DELETE CASCADE foreign key
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from Department d where d.id = :id")
+    int deleteDepartmentById(Long id);
+
+    // Deletes the department only while it has no employees and no removal job holds it, checked in the same statement
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from Department d where d.id = :id and d.deletionPending = false " +
+            "and not exists (select e.id from Employee e where e.department.id = :id)")
+    int deleteEmptyDepartmentById(Long id);
+
+    // Flips the removal flag; no row updated means the department is gone or already in that state
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Department d set d.deletionPending = :deletionPending, d.version = d.version + 1, d.updatedAt = instant " +
+            "where d.id = :id and d.deletionPending <> :deletionPending")
+    int updateDeletionPending(Long id, boolean deletionPending);
+
+    // Department aggregates computed in the database, one row per department that has employees
+
+    @Query("select new org.chintanpatel.springbootmanytoone.department.DepartmentSummary(e.department.id, count(e), sum(e.salary), min(e.salary), max(e.salary)) " +
+            "from Employee e group by e.department.id")
+    List<DepartmentSummary>summarizeByDepartment();
+
+    // Cheap lookups behind the REST API's conditional requests; neither loads an entity
+
+    @Query("select d.version from Department d where d.id = :id")
+    Optional<Long>findVersionById(Long id);
+
+    // Covers the listed departments only, so one marked for removal changes the version as if it had been deleted
+
+    @Query("select new org.chintanpatel.springbootmanytoone.ListVersion(count(d), max(d.updatedAt), " +
+            "(select r.removedAt from ListRemoval r where r.tableName = 'department')) from Department d where d.deletionPending = false")
+    ListVersion findListVersion();
+
+    // Moves the list's removal time past the newest update it is about to lose; called before rows leave the list
+
+    @Modifying(flushAutomatically = true)
+    @Query("update ListRemoval r set r.removedAt = greatest(r.removedAt, instant, " +
+            "coalesce((select max(d.updatedAt) from Department d where d.deletionPending = false), instant)) where r.tableName = 'department'")
+    int recordRemoval();
+}
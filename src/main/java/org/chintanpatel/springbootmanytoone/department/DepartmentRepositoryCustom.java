@@ -0,0 +1,11 @@
+package org.chintanpatel.springbootmanytoone.department;
+
+// Writes on DepartmentRepository that evict only the department they touch from the second-level cache
+
+public interface DepartmentRepositoryCustom {
+
+    // Edit form write: one UPDATE of the name guarded by the version the form was rendered with, no SELECT of the row
+    // first; no row updated means the department is gone or someone else saved first
+
+    int updateIfVersionMatches(Department department);
+}
@@ -0,0 +1,32 @@
+package org.chintanpatel.springbootmanytoone.department;
+
+import jakarta.persistence.EntityManager;
+import org.chintanpatel.springbootmanytoone.JdbcWrites;
+
+import java.time.Instant;
+import java.util.List;
+
+// Plain SQL through JdbcWrites, so a rename invalidates only that department in the department cache region. Only the
+// name is written: the removal flag is not on the edit form and must not be reset by it.
+
+class DepartmentRepositoryCustomImpl implements DepartmentRepositoryCustom {
+
+    private static final List<String> EDITABLE_ATTRIBUTES = List.of("departmentName");
+
+    private final EntityManager entityManager;
+
+    DepartmentRepositoryCustomImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public int updateIfVersionMatches(Department department) {
+        Instant updatedAt = Instant.now();
+        int count = JdbcWrites.updateIfVersionMatches(entityManager, department, EDITABLE_ATTRIBUTES, updatedAt);
+        if (count > 0) {
+            department.setVersion(department.getVersion() + 1);
+            department.setUpdatedAt(updatedAt);
+        }
+        return count;
+    }
+}
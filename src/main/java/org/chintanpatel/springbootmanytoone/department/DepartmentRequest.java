@@ -0,0 +1,12 @@
+package org.chintanpatel.springbootmanytoone.department;
+
+// Body of REST create and update calls; validated through the Department entity's constraints
+
+public record DepartmentRequest(String departmentName) {
+
+    public Department toDepartment() {
+        Department department = new Department();
+        department.setDepartmentName(departmentName);
+        return department;
+    }
+}
@@ -0,0 +1,182 @@
+package org.chintanpatel.springbootmanytoone.department;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Validator;
+import org.chintanpatel.springbootmanytoone.ETags;
+import org.chintanpatel.springbootmanytoone.ListVersion;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ProblemDetail;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+import java.net.URI;
+import java.util.List;
+import java.util.Set;
+
+// JSON REST API for departments, with the same ETag handling as the employee API
+
+@RestController
+public class DepartmentRestController {
+
+    private final DepartmentService departmentService;
+    private final DepartmentRemover departmentRemover;
+    private final Validator validator;
+
+    public DepartmentRestController(DepartmentService departmentService, DepartmentRemover departmentRemover, Validator validator) {
+        this.departmentService = departmentService;
+        this.departmentRemover = departmentRemover;
+        this.validator = validator;
+    }
+
+    // Logic to list all departments
+
+    @GetMapping("/api/departments")
+    public ResponseEntity<List<DepartmentDto>> listDepartments(WebRequest webRequest) {
+        ListVersion listVersion = departmentService.getDepartmentListVersion();
+        // Also writes the ETag and Last-Modified headers onto the response
+        if (webRequest.checkNotModified(listVersion.etag(), listVersion.lastModifiedMillis())) {
+            return null;
+        }
+        List<DepartmentDto> departments = departmentService.getAllDepartmentList().stream().map(DepartmentDto::from).toList();
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(departments);
+    }
+
+    // Logic to get one department
+
+    @GetMapping("/api/departments/{id}")
+    public ResponseEntity<DepartmentDto> getDepartment(@PathVariable Long id, WebRequest webRequest) {
+        Long version = departmentService.getDepartmentVersion(id);
+        if (version == null) {
+            return ResponseEntity.notFound().build();
+        }
+        if (webRequest.checkNotModified(ETags.of(version))) {
+            return null;
+        }
+        Department department = departmentService.getDepartmentById(id);
+        if (department == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(DepartmentDto.from(department));
+    }
+
+    // Logic to create a department
+
+    @PostMapping("/api/departments")
+    public ResponseEntity<DepartmentDto> createDepartment(@RequestBody DepartmentRequest request) {
+        Department department = toValidDepartment(request);
+        departmentService.addDepartment(department);
+        return ResponseEntity.created(URI.create("/api/departments/" + department.getId()))
+                .eTag(ETags.of(department.getVersion()))
+                .body(DepartmentDto.from(department));
+    }
+
+    // Logic to rename a department; If-Match is required so an edit never overwrites a newer version
+
+    @PutMapping("/api/departments/{id}")
+    public ResponseEntity<Void> updateDepartment(@PathVariable Long id,
+                                                 @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                 @RequestBody DepartmentRequest request) {
+        if (ifMatch == null) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_REQUIRED).build();
+        }
+        Long version = ETags.versionFromIfMatch(ifMatch, ifMatch.trim().equals("*") ? departmentService.getDepartmentVersion(id) : null);
+        Department department = toValidDepartment(request);
+        department.setId(id);
+        department.setVersion(version);
+        try {
+            departmentService.updateDepartment(department);
+        } catch (OptimisticLockingFailureException ex) {
+            return departmentService.getDepartmentVersion(id) == null
+                    ? ResponseEntity.notFound().build()
+                    : ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+        }
+        return ResponseEntity.noContent().eTag(ETags.of(department.getVersion())).build();
+    }
+
+    // Logic to delete a department, honouring If-Match when it is sent. An empty department is gone when this answers
+    // 204; one with employees answers 202 and is removed in the background like POST /removal
+
+    @DeleteMapping("/api/departments/{id}")
+    public ResponseEntity<Void> deleteDepartment(@PathVariable Long id,
+                                                 @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        if (ifMatch != null) {
+            Long current = departmentService.getDepartmentVersion(id);
+            if (current == null) {
+                return ResponseEntity.notFound().build();
+            }
+            if (!current.equals(ETags.versionFromIfMatch(ifMatch, current))) {
+                return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+            }
+        }
+        DepartmentRemovalStatus status = departmentRemover.deleteDepartment(id);
+        if (status == null) {
+            return ResponseEntity.notFound().build();
+        }
+        if (status.state() == DepartmentRemovalStatus.State.COMPLETED) {
+            return ResponseEntity.noContent().build();
+        }
+        return ResponseEntity.accepted().location(URI.create("/api/departments/" + id + "/removal")).build();
+    }
+
+    // Logic to start a background removal; the job's progress is served from the Location it returns
+
+    @PostMapping("/api/departments/{id}/removal")
+    public ResponseEntity<DepartmentRemovalStatus> startRemoval(@PathVariable Long id,
+                                                                @RequestParam(defaultValue = "DELETE_EMPLOYEES") DepartmentRemovalMode mode,
+                                                                @RequestParam(required = false) Long targetDepartmentId) {
+        DepartmentRemovalStatus status = departmentRemover.startRemoval(id, mode, targetDepartmentId);
+        if (status == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.accepted().location(URI.create("/api/departments/" + id + "/removal")).body(status);
+    }
+
+    @GetMapping("/api/departments/{id}/removal")
+    public ResponseEntity<DepartmentRemovalStatus> getRemovalStatus(@PathVariable Long id) {
+        DepartmentRemovalStatus status = departmentRemover.getRemovalStatus(id);
+        return status == null ? ResponseEntity.notFound().build()
+                : ResponseEntity.ok().cacheControl(CacheControl.noStore()).body(status);
+    }
+
+    private Department toValidDepartment(DepartmentRequest request) {
+        Department department = request.toDepartment();
+        Set<ConstraintViolation<Department>> violations = validator.validate(department);
+        if (!violations.isEmpty()) {
+            throw new ConstraintViolationException(violations);
+        }
+        return department;
+    }
+
+    @ExceptionHandler(ConstraintViolationException.class)
+    public ProblemDetail handleInvalidDepartment(ConstraintViolationException ex) {
+        ProblemDetail problem = ProblemDetail.forStatusAndDetail(HttpStatus.BAD_REQUEST, "Department is not valid");
+        problem.setProperty("errors", ex.getConstraintViolations().stream().map(ConstraintViolation::getMessage).sorted().toList());
+        return problem;
+    }
+
+    @ExceptionHandler(DepartmentAlreadyExistsException.class)
+    public ProblemDetail handleDuplicateDepartment(DepartmentAlreadyExistsException ex) {
+        return ProblemDetail.forStatusAndDetail(HttpStatus.CONFLICT, ex.getMessage());
+    }
+
+    @ExceptionHandler(DepartmentRemovalConflictException.class)
+    public ProblemDetail handleRemovalConflict(DepartmentRemovalConflictException ex) {
+        return ProblemDetail.forStatusAndDetail(HttpStatus.CONFLICT, ex.getMessage());
+    }
+
+    @ExceptionHandler(TaskRejectedException.class)
+    public ProblemDetail handleRemovalNotStarted(TaskRejectedException ex) {
+        return ProblemDetail.forStatusAndDetail(HttpStatus.SERVICE_UNAVAILABLE, "Department removal could not be started, try again later");
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ProblemDetail handleInvalidRemoval(IllegalArgumentException ex) {
+        return ProblemDetail.forStatusAndDetail(HttpStatus.BAD_REQUEST, ex.getMessage());
+    }
+}
@@ -0,0 +1,10 @@
+package org.chintanpatel.springbootmanytoone.department;
+
+// Read-only view of a department for the JSON read API
+
+public record DepartmentRow(Long id, String departmentName) {
+
+    public static DepartmentRow from(Department department) {
+        return new DepartmentRow(department.getId(), department.getDepartmentName());
+    }
+}
@@ -1,6 +1,9 @@
 package org.chintanpatel.springbootmanytoone.department;
 
+import org.chintanpatel.springbootmanytoone.ListVersion;
+
 import java.util.List;
+import java.util.Map;
 
 public interface DepartmentService {
 
@@ -12,7 +15,21 @@ public interface DepartmentService {
 
     void updateDepartment(Department department);
 
-    void deleteDepartmentById(Long id);
+    boolean deleteDepartmentById(Long id);
+
+    boolean deleteEmptyDepartmentById(Long id);
+
+    boolean markDepartmentForRemoval(Long id);
+
+    void unmarkDepartmentForRemoval(Long id);
 
     boolean isDepartmentExist(String departmentName);
+
+    List<Long>getDepartmentIdsByDepartmentName(String departmentName);
+
+    Map<Long, DepartmentSummary>getDepartmentSummaries();
+
+    Long getDepartmentVersion(Long id);
+
+    ListVersion getDepartmentListVersion();
 }
@@ -1,47 +1,141 @@
 package org.chintanpatel.springbootmanytoone.department;
 
+import org.chintanpatel.springbootmanytoone.LikePatterns;
+import org.chintanpatel.springbootmanytoone.ListVersion;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Transactional
 @Service("departmentService")
 public class DepartmentServiceImpl implements DepartmentService {
 
+    static final String DEPARTMENT_LIST_CACHE = "departmentList";
+    static final String DEPARTMENT_BY_ID_CACHE = "departmentById";
+    static final String DEPARTMENT_IDS_BY_NAME_CACHE = "departmentIdsByName";
+
     private final DepartmentRepository departmentRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public DepartmentServiceImpl(DepartmentRepository departmentRepository) {
+    public DepartmentServiceImpl(DepartmentRepository departmentRepository, ApplicationEventPublisher eventPublisher) {
         this.departmentRepository = departmentRepository;
+        this.eventPublisher = eventPublisher;
     }
 
     @Override
+    @CacheEvict(cacheNames = {DEPARTMENT_LIST_CACHE, DEPARTMENT_BY_ID_CACHE, DEPARTMENT_IDS_BY_NAME_CACHE}, allEntries = true)
     public void addDepartment(Department department) {
-        departmentRepository.save(department);
+        try {
+            departmentRepository.saveAndFlush(department);
+        } catch (DataIntegrityViolationException ex) {
+            DepartmentAlreadyExistsException duplicate = DepartmentAlreadyExistsException.from(ex);
+            throw duplicate != null ? duplicate : ex;
+        }
     }
 
     @Override
+    @Cacheable(DEPARTMENT_LIST_CACHE)
+    @Transactional(readOnly = true)
     public List<Department> getAllDepartmentList() {
-        return departmentRepository.findAll();
+        return departmentRepository.findByDeletionPendingFalse();
     }
 
     @Override
+    @Cacheable(cacheNames = DEPARTMENT_BY_ID_CACHE, unless = "#result == null")
+    @Transactional(readOnly = true)
     public Department getDepartmentById(Long id) {
         return departmentRepository.findById(id).orElse(null);
     }
 
     @Override
+    @CacheEvict(cacheNames = {DEPARTMENT_LIST_CACHE, DEPARTMENT_BY_ID_CACHE, DEPARTMENT_IDS_BY_NAME_CACHE}, allEntries = true)
     public void updateDepartment(Department department) {
-        departmentRepository.save(department);
+        int updated = 0;
+        if (department.getVersion() != null) {
+            try {
+                updated = departmentRepository.updateIfVersionMatches(department);
+            } catch (DataIntegrityViolationException ex) {
+                DepartmentAlreadyExistsException duplicate = DepartmentAlreadyExistsException.from(ex);
+                throw duplicate != null ? duplicate : ex;
+            }
+        }
+        if (updated == 0) {
+            throw new ObjectOptimisticLockingFailureException(Department.class, department.getId());
+        }
+    }
+
+    @Override
+    @CacheEvict(cacheNames = {DEPARTMENT_LIST_CACHE, DEPARTMENT_BY_ID_CACHE, DEPARTMENT_IDS_BY_NAME_CACHE}, allEntries = true)
+    public boolean deleteDepartmentById(Long id) {
+        // Listeners get to see the employees the foreign key is about to remove before they are gone
+        eventPublisher.publishEvent(new DepartmentDeletingEvent(id));
+        departmentRepository.recordRemoval();
+        if (departmentRepository.deleteDepartmentById(id) == 0) {
+            return false;
+        }
+        eventPublisher.publishEvent(new DepartmentDeletedEvent(id));
+        return true;
     }
 
     @Override
-    public void deleteDepartmentById(Long id) {
-        departmentRepository.deleteById(id);
+    @CacheEvict(cacheNames = {DEPARTMENT_LIST_CACHE, DEPARTMENT_BY_ID_CACHE, DEPARTMENT_IDS_BY_NAME_CACHE}, allEntries = true)
+    public boolean deleteEmptyDepartmentById(Long id) {
+        // No employee can go with it, so there is nothing for the search index or the employee cache to catch up on
+        departmentRepository.recordRemoval();
+        return departmentRepository.deleteEmptyDepartmentById(id) > 0;
+    }
+
+    @Override
+    @CacheEvict(cacheNames = {DEPARTMENT_LIST_CACHE, DEPARTMENT_BY_ID_CACHE, DEPARTMENT_IDS_BY_NAME_CACHE}, allEntries = true)
+    public boolean markDepartmentForRemoval(Long id) {
+        // A marked department drops out of the list
+        departmentRepository.recordRemoval();
+        return departmentRepository.updateDeletionPending(id, true) > 0;
+    }
+
+    @Override
+    @CacheEvict(cacheNames = {DEPARTMENT_LIST_CACHE, DEPARTMENT_BY_ID_CACHE, DEPARTMENT_IDS_BY_NAME_CACHE}, allEntries = true)
+    public void unmarkDepartmentForRemoval(Long id) {
+        departmentRepository.updateDeletionPending(id, false);
     }
 
     @Override
     public boolean isDepartmentExist(String departmentName) {
         return departmentRepository.existsByDepartmentName(departmentName);
     }
+
+    @Override
+    @Cacheable(cacheNames = DEPARTMENT_IDS_BY_NAME_CACHE, key = "#departmentName == null ? '' : #departmentName.toLowerCase()")
+    @Transactional(readOnly = true)
+    public List<Long> getDepartmentIdsByDepartmentName(String departmentName) {
+        return departmentRepository.findIdsByDepartmentNameLike(LikePatterns.contains(departmentName == null ? "" : departmentName));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Map<Long, DepartmentSummary> getDepartmentSummaries() {
+        return departmentRepository.summarizeByDepartment().stream()
+                .collect(Collectors.toMap(DepartmentSummary::departmentId, Function.identity()));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Long getDepartmentVersion(Long id) {
+        return departmentRepository.findVersionById(id).orElse(null);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ListVersion getDepartmentListVersion() {
+        return departmentRepository.findListVersion();
+    }
 }
@@ -0,0 +1,48 @@
+package org.chintanpatel.springbootmanytoone.department;
+
+import org.chintanpatel.springbootmanytoone.JsonStreamFormat;
+import org.chintanpatel.springbootmanytoone.JsonStreamWriter;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+// Read-only JSON API for departments, served from the department cache. Single departments are served by
+// DepartmentRestController.
+
+@RestController
+public class DepartmentStreamController {
+
+    private final DepartmentService departmentService;
+    private final JsonStreamWriter jsonStreamWriter;
+
+    public DepartmentStreamController(DepartmentService departmentService, JsonStreamWriter jsonStreamWriter) {
+        this.departmentService = departmentService;
+        this.jsonStreamWriter = jsonStreamWriter;
+    }
+
+    // Logic to stream every department
+
+    @GetMapping("/api/stream/departments")
+    public ResponseEntity<StreamingResponseBody> streamDepartments(@RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        JsonStreamFormat format = JsonStreamFormat.fromAccept(accept);
+        StreamingResponseBody body = output -> jsonStreamWriter.write(
+                departmentService.getAllDepartmentList().stream().map(DepartmentRow::from), output, format);
+        return ResponseEntity.ok()
+                .contentType(format.getMediaType())
+                .header(HttpHeaders.CACHE_CONTROL, "no-cache")
+                .body(body);
+    }
+
+    // Logic to turn a stream the streaming executor has no room for into 503, so clients back off and retry
+
+    @ExceptionHandler(TaskRejectedException.class)
+    public ResponseEntity<Void> handleStreamRejected() {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "1").build();
+    }
+}
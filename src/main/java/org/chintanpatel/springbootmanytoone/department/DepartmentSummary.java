@@ -0,0 +1,20 @@
+package org.chintanpatel.springbootmanytoone.department;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+// Headcount and salary figures for one department, produced by a single GROUP BY over employee
+
+public record DepartmentSummary(Long departmentId,
+                                Long headcount,
+                                BigDecimal totalSalary,
+                                BigDecimal minSalary,
+                                BigDecimal maxSalary) {
+
+    public BigDecimal averageSalary() {
+        if (headcount == null || headcount == 0 || totalSalary == null) {
+            return null;
+        }
+        return totalSalary.divide(BigDecimal.valueOf(headcount), 2, RoundingMode.HALF_UP);
+    }
+}
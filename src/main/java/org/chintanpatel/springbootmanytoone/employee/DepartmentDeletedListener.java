@@ -0,0 +1,43 @@
+package org.chintanpatel.springbootmanytoone.employee;
+
+import jakarta.persistence.EntityManager;
+import org.chintanpatel.springbootmanytoone.JdbcWrites;
+import org.chintanpatel.springbootmanytoone.department.DepartmentDeletedEvent;
+import org.chintanpatel.springbootmanytoone.department.DepartmentDeletingEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+// The foreign key removes a deleted department's employees inside the database, where neither the search index
+// nor the second-level cache nor the employee list's removal time sees it, so all are brought in step around the delete.
+
+@Component
+public class DepartmentDeletedListener {
+
+    private final EmployeeSearchEngine employeeSearchEngine;
+    private final EmployeeRepository employeeRepository;
+    private final EntityManager entityManager;
+
+    public DepartmentDeletedListener(EmployeeSearchEngine employeeSearchEngine, EmployeeRepository employeeRepository, EntityManager entityManager) {
+        this.employeeSearchEngine = employeeSearchEngine;
+        this.employeeRepository = employeeRepository;
+        this.entityManager = entityManager;
+    }
+
+    // Logic to soft-lock the cached copies of exactly the employees the delete takes with it. The ids are read only
+    // when employees are cached, and DepartmentRemover has usually emptied the department already. The employee list
+    // loses those rows too, so its removal time moves on.
+
+    @EventListener
+    public void onDepartmentDeleting(DepartmentDeletingEvent event) {
+        employeeRepository.recordRemoval();
+        JdbcWrites.lockCachedRows(entityManager, Employee.class,
+                () -> employeeRepository.findIdsByDepartmentId(event.departmentId(), Limit.unlimited()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDepartmentDeleted(DepartmentDeletedEvent event) {
+        employeeSearchEngine.removeByDepartment(event.departmentId());
+    }
+}
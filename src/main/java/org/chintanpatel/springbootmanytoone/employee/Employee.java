@@ -7,26 +7,48 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import org.chintanpatel.springbootmanytoone.department.Department;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.UpdateTimestamp;
 import org.hibernate.annotations.OnDelete;
 import org.hibernate.annotations.OnDeleteAction;
 import org.springframework.format.annotation.DateTimeFormat;
 
 import java.math.BigDecimal;
+import java.time.Instant;
 import java.time.LocalDate;
 
 @Getter
 @Setter
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "employee")
 @NoArgsConstructor
 @AllArgsConstructor
-@Table(name = "employee")
+@Table(name = "employee",
+        indexes = @Index(name = "employee_department_id_idx", columnList = "department_id"),
+        uniqueConstraints = {
+                @UniqueConstraint(name = "employee_email_key", columnNames = "email"),
+                @UniqueConstraint(name = "employee_user_name_key", columnNames = "user_name")
+        })
+@EntityListeners(EmployeeSearchIndexListener.class)
 public class Employee {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "employee_seq")
+    @SequenceGenerator(name = "employee_seq", sequenceName = "employee_seq", allocationSize = 50)
     @Column(name = "employee_id", nullable = false)
     private Long id;
 
+    @Version
+    @ColumnDefault("0")
+    @Column(name = "version", nullable = false)
+    private Long version;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    private Instant updatedAt;
+
     @Size(max = 255)
     @NotEmpty(message = "Please Provide First Name")
     @Column(name = "first_name", nullable = false)
@@ -81,7 +103,6 @@ public class Employee {
     @NotNull(message = "Please Provide Department")
     @ManyToOne(fetch = FetchType.LAZY, optional = false)
     @OnDelete(action = OnDeleteAction.CASCADE)
-    @ColumnDefault("nextval('employee_department_id_seq')")
     @JoinColumn(name = "department_id", nullable = false)
     private Department department;
 
@@ -0,0 +1,26 @@
+package org.chintanpatel.springbootmanytoone.employee;
+
+import org.chintanpatel.springbootmanytoone.ConstraintViolations;
+import org.springframework.dao.DataIntegrityViolationException;
+
+// Raised when a write hits the unique constraint on email or user_name; the message is shown to the user as is
+
+public class EmployeeAlreadyExistsException extends RuntimeException {
+
+    public EmployeeAlreadyExistsException(String message, Throwable cause) {
+        super(message, cause);
+    }
+
+    // Logic to map the violated constraint to the message the form shows, or null when it is not a uniqueness violation
+
+    static EmployeeAlreadyExistsException from(DataIntegrityViolationException ex) {
+        String text = ConstraintViolations.constraintText(ex);
+        if (text.contains("employee_email_key")) {
+            return new EmployeeAlreadyExistsException("Email already exists", ex);
+        }
+        if (text.contains("employee_user_name_key")) {
+            return new EmployeeAlreadyExistsException("User Name already exists", ex);
+        }
+        return null;
+    }
+}
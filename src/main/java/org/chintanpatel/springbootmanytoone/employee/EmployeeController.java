@@ -4,6 +4,11 @@ package org.chintanpatel.springbootmanytoone.employee;
 import jakarta.validation.Valid;
 import org.chintanpatel.springbootmanytoone.department.Department;
 import org.chintanpatel.springbootmanytoone.department.DepartmentService;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
@@ -11,13 +16,22 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 @Controller
 public class EmployeeController {
 
+    static final String DEPARTMENT_BEING_REMOVED = "Department is being removed, please choose another";
+
     private final EmployeeService employeeService;
     private final DepartmentService departmentService;
 
@@ -26,12 +40,16 @@ public class EmployeeController {
         this.departmentService = departmentService;
     }
 
-    // Logic to display all employees
+    // Logic to display employees one keyset page at a time
 
     @GetMapping("/employees")
-    public String listEmployees(Model model) {
-        List<Employee> employeeList = employeeService.getAllEmployeeList();
-        model.addAttribute("employeeList", employeeList);
+    public String listEmployees(@RequestParam(required = false) Long after,
+                                @RequestParam(required = false) Long before,
+                                @RequestParam(defaultValue = "50") int size,
+                                Model model) {
+        EmployeePage employeePage = employeeService.getEmployeePage(after, before, size);
+        model.addAttribute("employeeList", employeePage.rows());
+        model.addAttribute("employeePage", employeePage);
         return "employee/employee-list";
     }
 
@@ -50,6 +68,10 @@ public class EmployeeController {
 
     @PostMapping("/employees/insertOrUpdateEmployee")
     public String insertOrUpdateEmployee(@Valid @ModelAttribute("employee") Employee employee, BindingResult bindingResult, RedirectAttributes redirectAttributes, Model model) {
+        // The form only offers departments that stay, but one opened before a removal started can still post its id
+        if (employee.getDepartment() != null && employee.getDepartment().isDeletionPending()) {
+            bindingResult.rejectValue("department", "department.deletionPending", DEPARTMENT_BEING_REMOVED);
+        }
         if (bindingResult.hasErrors()) {
             List<Department> departmentList = departmentService.getAllDepartmentList();
             model.addAttribute("departmentList", departmentList);
@@ -57,18 +79,23 @@ public class EmployeeController {
         }
         if (employee.getId() != null) {
             employee.setId(employee.getId());
-            employeeService.updateEmployee(employee);
+            try {
+                employeeService.updateEmployee(employee);
+            } catch (EmployeeAlreadyExistsException ex) {
+                redirectAttributes.addFlashAttribute("errorMessage", ex.getMessage());
+                return "redirect:/employees/manageEmployee/" + employee.getId();
+            } catch (OptimisticLockingFailureException ex) {
+                redirectAttributes.addFlashAttribute("errorMessage", "Employee was changed by someone else, please review and save again");
+                return "redirect:/employees/manageEmployee/" + employee.getId();
+            }
             redirectAttributes.addFlashAttribute("successMessage", "Employee updated successfully");
         } else {
-            if (employeeService.isEmailExist(employee.getEmail())) {
-                redirectAttributes.addFlashAttribute("errorMessage", "Email already exists");
-                return "redirect:/employees/create";
-            }
-            if (employeeService.isUserNameExist(employee.getUserName())) {
-                redirectAttributes.addFlashAttribute("errorMessage", "User Name already exists");
+            try {
+                employeeService.addEmployee(employee);
+            } catch (EmployeeAlreadyExistsException ex) {
+                redirectAttributes.addFlashAttribute("errorMessage", ex.getMessage());
                 return "redirect:/employees/create";
             }
-            employeeService.addEmployee(employee);
             redirectAttributes.addFlashAttribute("successMessage", "Employee added successfully");
         }
         return "redirect:/employees";
@@ -94,9 +121,7 @@ public class EmployeeController {
 
     @GetMapping("/employees/deleteEmployee/{id}")
     public String deleteEmployee(@PathVariable Long id, RedirectAttributes redirectAttributes) {
-        Employee employee = employeeService.getEmployeeById(id);
-        if (employee != null) {
-            employeeService.deleteEmployeeById(id);
+        if (employeeService.deleteEmployeeById(id)) {
             redirectAttributes.addFlashAttribute("successMessage", "Employee deleted successfully");
         } else {
             redirectAttributes.addFlashAttribute("errorMessage", "Employee not found");
@@ -104,11 +129,24 @@ public class EmployeeController {
         return "redirect:/employees";
     }
 
+    // Logic to delete the selected employees, one DELETE per batch of ids
+
+    @PostMapping("/employees/deleteEmployees")
+    public String deleteEmployees(@RequestParam(name = "ids", required = false) List<Long> ids, RedirectAttributes redirectAttributes) {
+        if (ids == null || ids.isEmpty()) {
+            redirectAttributes.addFlashAttribute("errorMessage", "No employees selected");
+            return "redirect:/employees";
+        }
+        int deleted = employeeService.deleteEmployeesByIds(ids);
+        redirectAttributes.addFlashAttribute("successMessage", deleted + " employee(s) deleted successfully");
+        return "redirect:/employees";
+    }
+
     // Logic to search employees by name
 
     @GetMapping("/employees/search/employeeName")
     public String searchEmployeeByName(String employeeName, Model model){
-        List<Employee> employeeList = employeeService.searchEmployeeByEmployeeName(employeeName);
+        List<EmployeeRow> employeeList = employeeService.searchEmployeeByEmployeeName(employeeName).stream().map(EmployeeRow::from).toList();
         model.addAttribute("employeeList", employeeList);
         model.addAttribute("employeeName", employeeName);
         model.addAttribute("searchType", "employeeName");
@@ -119,10 +157,45 @@ public class EmployeeController {
 
     @GetMapping("/employees/search/departmentName")
     public String searchEmployeeByDepartment(String departmentName, Model model){
-        List<Employee> employeeList = employeeService.searchEmployeeByDepartmentName(departmentName);
+        List<EmployeeRow> employeeList = employeeService.searchEmployeeByDepartmentName(departmentName).stream().map(EmployeeRow::from).toList();
         model.addAttribute("employeeList", employeeList);
         model.addAttribute("departmentName", departmentName);
         model.addAttribute("searchType", "departmentName");
         return "employee/employee-list";
     }
+
+    // Logic to display the bulk import form
+
+    @GetMapping("/employees/import")
+    public String importEmployeesForm() {
+        return "employee/employee-import";
+    }
+
+    // Logic to bulk import employees from a CSV or JSON lines upload
+
+    @PostMapping("/employees/import")
+    public String importEmployees(@RequestParam("file") MultipartFile file, Model model) throws IOException {
+        if (file.isEmpty()) {
+            model.addAttribute("errorMessage", "Please Provide a File to Import");
+            return "employee/employee-import";
+        }
+        EmployeeFileFormat format = EmployeeFileFormat.fromFileName(file.getOriginalFilename());
+        try (Reader reader = new InputStreamReader(file.getInputStream(), StandardCharsets.UTF_8)) {
+            EmployeeImportReport report = employeeService.importEmployees(reader, format);
+            model.addAttribute("importReport", report);
+        }
+        return "employee/employee-import";
+    }
+
+    // Logic to stream all employees as a CSV or JSON lines download
+
+    @GetMapping("/employees/export")
+    public ResponseEntity<StreamingResponseBody> exportEmployees(@RequestParam(defaultValue = "csv") String format) {
+        EmployeeFileFormat fileFormat = EmployeeFileFormat.fromFileName("employees." + format);
+        StreamingResponseBody body = output -> employeeService.exportEmployees(output, fileFormat);
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename("employees." + fileFormat.getExtension()).build().toString())
+                .contentType(MediaType.parseMediaType(fileFormat.getContentType() + ";charset=UTF-8"))
+                .body(body);
+    }
 }
@@ -0,0 +1,41 @@
+package org.chintanpatel.springbootmanytoone.employee;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+
+// Employee as returned by the REST API; the password never leaves the server
+
+public record EmployeeDto(Long id,
+                          Long version,
+                          String firstName,
+                          String middleName,
+                          String lastName,
+                          String address,
+                          String email,
+                          String mobileNumber,
+                          LocalDate hiringDate,
+                          BigDecimal salary,
+                          String userName,
+                          Long departmentId,
+                          String departmentName,
+                          Instant updatedAt) {
+
+    public static EmployeeDto from(Employee employee) {
+        return new EmployeeDto(
+                employee.getId(),
+                employee.getVersion(),
+                employee.getFirstName(),
+                employee.getMiddleName(),
+                employee.getLastName(),
+                employee.getAddress(),
+                employee.getEmail(),
+                employee.getMobileNumber(),
+                employee.getHiringDate(),
+                employee.getSalary(),
+                employee.getUserName(),
+                employee.getDepartment() != null ? employee.getDepartment().getId() : null,
+                employee.getDepartment() != null ? employee.getDepartment().getDepartmentName() : null,
+                employee.getUpdatedAt());
+    }
+}
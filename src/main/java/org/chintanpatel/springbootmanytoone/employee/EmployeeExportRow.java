@@ -0,0 +1,19 @@
+package org.chintanpatel.springbootmanytoone.employee;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+// Read-only projection written by the employee export; never carries the password
+
+public record EmployeeExportRow(Long id,
+                                String firstName,
+                                String middleName,
+                                String lastName,
+                                String address,
+                                String email,
+                                String mobileNumber,
+                                LocalDate hiringDate,
+                                BigDecimal salary,
+                                String userName,
+                                String departmentName) {
+}
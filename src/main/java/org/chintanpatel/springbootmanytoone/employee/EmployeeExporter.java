@@ -0,0 +1,76 @@
+package org.chintanpatel.springbootmanytoone.employee;
+
+import org.springframework.stereotype.Component;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.stream.Stream;
+
+// Writes the employee roster from a database cursor straight to the response, one row at a time
+
+@Component
+public class EmployeeExporter {
+
+    static final String CSV_HEADER = "id,firstName,middleName,lastName,address,email,mobileNumber,hiringDate,salary,userName,departmentName";
+
+    private final EmployeeRepository employeeRepository;
+    private final JsonMapper jsonMapper;
+
+    public EmployeeExporter(EmployeeRepository employeeRepository, JsonMapper jsonMapper) {
+        this.employeeRepository = employeeRepository;
+        this.jsonMapper = jsonMapper;
+    }
+
+    // Must run inside a read-only transaction so the cursor stays open while rows are written
+
+    public long exportEmployees(OutputStream output, EmployeeFileFormat format) {
+        long count = 0;
+        Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+        try (Stream<EmployeeExportRow> rows = employeeRepository.streamAllForExport()) {
+            if (format == EmployeeFileFormat.CSV) {
+                writer.write(CSV_HEADER);
+                writer.write('\n');
+            }
+            for (EmployeeExportRow row : (Iterable<EmployeeExportRow>) rows::iterator) {
+                writer.write(format == EmployeeFileFormat.CSV ? toCsv(row) : jsonMapper.writeValueAsString(row));
+                writer.write('\n');
+                count++;
+            }
+            writer.flush();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return count;
+    }
+
+    private static String toCsv(EmployeeExportRow row) {
+        return String.join(",",
+                String.valueOf(row.id()),
+                csv(row.firstName()),
+                csv(row.middleName()),
+                csv(row.lastName()),
+                csv(row.address()),
+                csv(row.email()),
+                csv(row.mobileNumber()),
+                row.hiringDate() == null ? "" : row.hiringDate().toString(),
+                row.salary() == null ? "" : row.salary().toPlainString(),
+                csv(row.userName()),
+                csv(row.departmentName()));
+    }
+
+    private static String csv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
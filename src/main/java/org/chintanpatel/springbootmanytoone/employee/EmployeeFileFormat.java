@@ -0,0 +1,32 @@
+package org.chintanpatel.springbootmanytoone.employee;
+
+import java.util.Locale;
+
+public enum EmployeeFileFormat {
+
+    CSV("csv", "text/csv"),
+    JSON_LINES("jsonl", "application/x-ndjson");
+
+    private final String extension;
+    private final String contentType;
+
+    EmployeeFileFormat(String extension, String contentType) {
+        this.extension = extension;
+        this.contentType = contentType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    // Logic to pick the format from the uploaded file name
+
+    public static EmployeeFileFormat fromFileName(String fileName) {
+        String name = fileName == null ? "" : fileName.toLowerCase(Locale.ROOT);
+        return name.endsWith(".jsonl") || name.endsWith(".ndjson") ? JSON_LINES : CSV;
+    }
+}
@@ -0,0 +1,11 @@
+package org.chintanpatel.springbootmanytoone.employee;
+
+import java.util.List;
+
+// Outcome of a bulk import: how many rows were read and stored, and why the others were rejected
+
+public record EmployeeImportReport(long totalRows, long importedRows, List<RowError> errors) {
+
+    public record RowError(long rowNumber, String message) {
+    }
+}
@@ -0,0 +1,16 @@
+package org.chintanpatel.springbootmanytoone.employee;
+
+// One raw record of a bulk import file; values stay as text so conversion errors can be reported per row
+
+public record EmployeeImportRow(String firstName,
+                                String middleName,
+                                String lastName,
+                                String address,
+                                String email,
+                                String mobileNumber,
+                                String hiringDate,
+                                String salary,
+                                String userName,
+                                String password,
+                                String departmentName) {
+}
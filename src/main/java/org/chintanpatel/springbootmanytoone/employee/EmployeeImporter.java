@@ -0,0 +1,235 @@
+package org.chintanpatel.springbootmanytoone.employee;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceException;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.chintanpatel.springbootmanytoone.department.Department;
+import org.chintanpatel.springbootmanytoone.department.DepartmentService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+import java.util.stream.Collectors;
+
+// Streams an upload row by row and stores it in chunks, each chunk in its own short transaction
+
+@Component
+public class EmployeeImporter {
+
+    static final List<String> CSV_COLUMNS = List.of("firstName", "middleName", "lastName", "address", "email",
+            "mobileNumber", "hiringDate", "salary", "userName", "password", "departmentName");
+
+    private final EmployeeRepository employeeRepository;
+    private final DepartmentService departmentService;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+    private final JsonMapper jsonMapper;
+    private final int chunkSize;
+
+    public EmployeeImporter(EmployeeRepository employeeRepository, DepartmentService departmentService,
+                            EntityManager entityManager, TransactionTemplate transactionTemplate, Validator validator,
+                            JsonMapper jsonMapper, @Value("${employee.import.chunk-size:500}") int chunkSize) {
+        this.employeeRepository = employeeRepository;
+        this.departmentService = departmentService;
+        this.entityManager = entityManager;
+        this.transactionTemplate = transactionTemplate;
+        this.validator = validator;
+        this.jsonMapper = jsonMapper;
+        this.chunkSize = chunkSize;
+    }
+
+    private record ParsedRow(long rowNumber, EmployeeImportRow row, String error) {
+    }
+
+    public EmployeeImportReport importEmployees(Reader input, EmployeeFileFormat format) {
+        Map<String, Long> departmentIds = departmentService.getAllDepartmentList().stream()
+                .collect(Collectors.toMap(d -> d.getDepartmentName().toLowerCase(Locale.ROOT), Department::getId, (first, second) -> first));
+        List<EmployeeImportReport.RowError> errors = new ArrayList<>();
+        long total = 0;
+        long imported = 0;
+        List<ParsedRow> chunk = new ArrayList<>(chunkSize);
+        try (BufferedReader reader = new BufferedReader(input)) {
+            RowSource rows = format == EmployeeFileFormat.JSON_LINES ? jsonLines(reader) : csv(reader);
+            ParsedRow parsed;
+            while ((parsed = rows.next()) != null) {
+                total++;
+                chunk.add(parsed);
+                if (chunk.size() == chunkSize) {
+                    imported += persistChunk(chunk, departmentIds, errors);
+                    chunk.clear();
+                }
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        if (!chunk.isEmpty()) {
+            imported += persistChunk(chunk, departmentIds, errors);
+        }
+        return new EmployeeImportReport(total, imported, errors);
+    }
+
+    // Logic to validate, check uniqueness for and store one chunk
+
+    private long persistChunk(List<ParsedRow> chunk, Map<String, Long> departmentIds, List<EmployeeImportReport.RowError> errors) {
+        List<EmployeeImportReport.RowError> chunkErrors = new ArrayList<>();
+        try {
+            Long stored = transactionTemplate.execute(status -> {
+                Set<String> emails = chunk.stream().map(ParsedRow::row).filter(Objects::nonNull).map(EmployeeImportRow::email).filter(Objects::nonNull).collect(Collectors.toSet());
+                Set<String> userNames = chunk.stream().map(ParsedRow::row).filter(Objects::nonNull).map(EmployeeImportRow::userName).filter(Objects::nonNull).collect(Collectors.toSet());
+                Set<String> takenEmails = new HashSet<>(emails.isEmpty() ? List.of() : employeeRepository.findExistingEmails(emails));
+                Set<String> takenUserNames = new HashSet<>(userNames.isEmpty() ? List.of() : employeeRepository.findExistingUserNames(userNames));
+                long count = 0;
+                for (ParsedRow parsed : chunk) {
+                    Employee employee = null;
+                    String error = parsed.error();
+                    if (error == null) {
+                        try {
+                            employee = toEmployee(parsed.row(), departmentIds);
+                            error = validate(employee, parsed.row());
+                        } catch (DateTimeParseException ex) {
+                            error = "Invalid hiring date: " + parsed.row().hiringDate();
+                        } catch (NumberFormatException ex) {
+                            error = "Invalid salary: " + parsed.row().salary();
+                        }
+                    }
+                    if (error == null && takenEmails.contains(parsed.row().email())) {
+                        error = "Email already exists";
+                    }
+                    if (error == null && takenUserNames.contains(parsed.row().userName())) {
+                        error = "User Name already exists";
+                    }
+                    if (error != null) {
+                        chunkErrors.add(new EmployeeImportReport.RowError(parsed.rowNumber(), error));
+                        continue;
+                    }
+                    // Only an accepted row claims its email and user name for the rest of the file
+                    takenEmails.add(parsed.row().email());
+                    takenUserNames.add(parsed.row().userName());
+                    entityManager.persist(employee);
+                    count++;
+                }
+                try {
+                    entityManager.flush();
+                } catch (PersistenceException ex) {
+                    // The shared EntityManager sits outside the repositories' exception translation, so a row the
+                    // checks above missed (e.g. one committed by a concurrent import) surfaces here untranslated
+                    DataAccessException translated = EntityManagerFactoryUtils.convertJpaAccessExceptionIfPossible(ex);
+                    throw translated != null ? translated : ex;
+                }
+                entityManager.clear();
+                return count;
+            });
+            errors.addAll(chunkErrors);
+            return stored == null ? 0 : stored;
+        } catch (DataAccessException ex) {
+            for (ParsedRow parsed : chunk) {
+                errors.add(new EmployeeImportReport.RowError(parsed.rowNumber(), "Chunk rolled back: " + ex.getMostSpecificCause().getMessage()));
+            }
+            return 0;
+        }
+    }
+
+    private String validate(Employee employee, EmployeeImportRow row) {
+        if (!blank(row.departmentName()) && employee.getDepartment() == null) {
+            return "Department not found: " + row.departmentName();
+        }
+        Set<ConstraintViolation<Employee>> violations = validator.validate(employee);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream().map(ConstraintViolation::getMessage).sorted().collect(Collectors.joining("; "));
+    }
+
+    private Employee toEmployee(EmployeeImportRow row, Map<String, Long> departmentIds) {
+        Employee employee = new Employee();
+        employee.setFirstName(row.firstName());
+        employee.setMiddleName(row.middleName());
+        employee.setLastName(row.lastName());
+        employee.setAddress(row.address());
+        employee.setEmail(row.email());
+        employee.setMobileNumber(row.mobileNumber());
+        employee.setHiringDate(blank(row.hiringDate()) ? null : LocalDate.parse(row.hiringDate().trim()));
+        employee.setSalary(blank(row.salary()) ? null : new BigDecimal(row.salary().trim()));
+        employee.setUserName(row.userName());
+        employee.setPassword(row.password());
+        Long departmentId = row.departmentName() == null ? null : departmentIds.get(row.departmentName().trim().toLowerCase(Locale.ROOT));
+        if (departmentId != null) {
+            employee.setDepartment(entityManager.getReference(Department.class, departmentId));
+        }
+        return employee;
+    }
+
+    private static boolean blank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    // Row sources read one record at a time, so the upload is never held in memory
+
+    @FunctionalInterface
+    private interface RowSource {
+        ParsedRow next() throws IOException;
+    }
+
+    private RowSource csv(BufferedReader reader) throws IOException {
+        EmployeeCsvReader csvReader = new EmployeeCsvReader(reader);
+        List<String> header = csvReader.readRecord();
+        Map<String, Integer> columns = new HashMap<>();
+        if (header != null) {
+            for (int i = 0; i < header.size(); i++) {
+                columns.put(header.get(i).trim(), i);
+            }
+        }
+        long[] rowNumber = {0};
+        return () -> {
+            List<String> record;
+            do {
+                record = csvReader.readRecord();
+            } while (record != null && record.size() == 1 && record.getFirst().isBlank());
+            if (record == null) {
+                return null;
+            }
+            rowNumber[0]++;
+            List<String> values = new ArrayList<>();
+            for (String column : CSV_COLUMNS) {
+                Integer index = columns.get(column);
+                values.add(index != null && index < record.size() ? record.get(index) : null);
+            }
+            return new ParsedRow(rowNumber[0], new EmployeeImportRow(values.get(0), values.get(1), values.get(2),
+                    values.get(3), values.get(4), values.get(5), values.get(6), values.get(7), values.get(8),
+                    values.get(9), values.get(10)), null);
+        };
+    }
+
+    private RowSource jsonLines(BufferedReader reader) {
+        long[] rowNumber = {0};
+        return () -> {
+            String line;
+            do {
+                line = reader.readLine();
+            } while (line != null && line.isBlank());
+            if (line == null) {
+                return null;
+            }
+            rowNumber[0]++;
+            try {
+                return new ParsedRow(rowNumber[0], jsonMapper.readValue(line, EmployeeImportRow.class), null);
+            } catch (JacksonException ex) {
+                return new ParsedRow(rowNumber[0], null, "Invalid JSON: " + ex.getOriginalMessage());
+            }
+        };
+    }
+}
@@ -0,0 +1,10 @@
+package org.chintanpatel.springbootmanytoone.employee;
+
+// Read-only projection of the name columns, and the department, used to build the in-memory search index
+
+public record EmployeeName(Long id, Long departmentId, String firstName, String middleName, String lastName) {
+
+    public String fullName() {
+        return String.join(" ", firstName, middleName, lastName);
+    }
+}
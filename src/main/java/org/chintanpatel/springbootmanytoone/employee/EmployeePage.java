@@ -0,0 +1,16 @@
+package org.chintanpatel.springbootmanytoone.employee;
+
+import java.util.List;
+
+// One keyset page of employee rows; the cursors are the employee ids to seek from
+
+public record EmployeePage(List<EmployeeRow> rows, Long previousCursor, Long nextCursor, int size) {
+
+    public boolean hasPrevious() {
+        return previousCursor != null;
+    }
+
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+}
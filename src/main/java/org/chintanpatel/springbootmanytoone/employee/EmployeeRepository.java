@@ -1,22 +1,118 @@
 package org.chintanpatel.springbootmanytoone.employee;
 
+import jakarta.persistence.QueryHint;
+import org.chintanpatel.springbootmanytoone.ListVersion;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository("employeeRepository")
-public interface EmployeeRepository extends JpaRepository<Employee, Long> {
+public interface EmployeeRepository extends JpaRepository<Employee, Long>, EmployeeRepositoryCustom {
 
-    List<Employee>findByFirstNameContainingIgnoreCaseOrLastNameContainingIgnoreCase(String firstName, String lastName);
+    // Read paths that render the department load it in the same statement to avoid N+1 selects
 
-    @Query("select e from Employee e where lower(e.department.departmentName)like lower(concat('%',:departmentName,'%'))")
-    List<Employee>findByDepartmentNameContainingIgnoreCase(String departmentName);
+    @Override
+    @EntityGraph(attributePaths = "department")
+    List<Employee>findAll();
+
+    @EntityGraph(attributePaths = "department")
+    List<Employee>findByIdIn(Collection<Long> ids);
+
+    @EntityGraph(attributePaths = "department")
+    List<Employee>findByDepartmentIdIn(Collection<Long> departmentIds);
+
+    // Name search support for the EmployeeSearchEngine implementations
+
+    @Query("select new org.chintanpatel.springbootmanytoone.employee.EmployeeName(e.id, e.department.id, e.firstName, e.middleName, e.lastName) from Employee e")
+    List<EmployeeName>findAllEmployeeNames();
+
+    @Query(value = "select e.employee_id from employee e " +
+            "where (e.first_name || ' ' || e.middle_name || ' ' || e.last_name) ilike :namePattern escape '!' " +
+            "or :employeeName <% (e.first_name || ' ' || e.middle_name || ' ' || e.last_name) " +
+            "order by word_similarity(:employeeName, e.first_name || ' ' || e.middle_name || ' ' || e.last_name) desc, e.employee_id " +
+            "limit :maxResults", nativeQuery = true)
+    List<Long>searchEmployeeIdsByTrigram(String employeeName, String namePattern, int maxResults);
 
     boolean existsByEmail(String email);
 
     boolean existsByUserName(String userName);
 
+    // Cursor over the whole roster for export; rows are DTOs so the persistence context stays empty
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("select new org.chintanpatel.springbootmanytoone.employee.EmployeeExportRow(e.id, e.firstName, e.middleName, e.lastName, e.address, e.email, e.mobileNumber, e.hiringDate, e.salary, e.userName, d.departmentName) " +
+            "from Employee e join e.department d order by e.id")
+    Stream<EmployeeExportRow>streamAllForExport();
+
+    // Next keyset chunk of a department search for the streamed JSON read API; the full list uses findRowsAfter
+
+    @Query("select new org.chintanpatel.springbootmanytoone.employee.EmployeeRow(e.id, e.firstName, e.lastName, e.mobileNumber, e.hiringDate, e.salary, e.userName, d.departmentName) " +
+            "from Employee e join e.department d where d.id in :departmentIds and e.id > :afterId order by e.id asc")
+    List<EmployeeRow>findRowsByDepartmentIdInAfter(Collection<Long> departmentIds, Long afterId, Limit limit);
+
+    // Set-based uniqueness checks for bulk import
+
+    @Query("select e.email from Employee e where e.email in :emails")
+    List<String>findExistingEmails(Collection<String> emails);
+
+    @Query("select e.userName from Employee e where e.userName in :userNames")
+    List<String>findExistingUserNames(Collection<String> userNames);
+
+    // Keyset paging on employee_id, selecting only the list columns
+
+    @Query("select new org.chintanpatel.springbootmanytoone.employee.EmployeeRow(e.id, e.firstName, e.lastName, e.mobileNumber, e.hiringDate, e.salary, e.userName, d.departmentName) " +
+            "from Employee e join e.department d order by e.id asc")
+    List<EmployeeRow>findFirstRows(Limit limit);
+
+    @Query("select new org.chintanpatel.springbootmanytoone.employee.EmployeeRow(e.id, e.firstName, e.lastName, e.mobileNumber, e.hiringDate, e.salary, e.userName, d.departmentName) " +
+            "from Employee e join e.department d where e.id > :afterId order by e.id asc")
+    List<EmployeeRow>findRowsAfter(Long afterId, Limit limit);
+
+    @Query("select new org.chintanpatel.springbootmanytoone.employee.EmployeeRow(e.id, e.firstName, e.lastName, e.mobileNumber, e.hiringDate, e.salary, e.userName, d.departmentName) " +
+            "from Employee e join e.department d where e.id < :beforeId order by e.id desc")
+    List<EmployeeRow>findRowsBefore(Long beforeId, Limit limit);
+
+    // Whether a page opened with ?after=afterId has rows before it; after=0 or an id below the first row has none
+
+    boolean existsByIdLessThanEqual(Long afterId);
+
+    // Chunk source for background department removal
+
+    @Query("select e.id from Employee e where e.department.id = :departmentId order by e.id")
+    List<Long>findIdsByDepartmentId(Long departmentId, Limit limit);
+
+    long countByDepartmentId(Long departmentId);
+
+    // Cheap lookups behind the REST API's conditional requests; neither loads an entity
+
+    @Query("select e.version from Employee e where e.id = :id")
+    Optional<Long>findVersionById(Long id);
+
+    @Query("select new org.chintanpatel.springbootmanytoone.employee.EmployeeVersion(e.version, d.version) from Employee e join e.department d where e.id = :id")
+    Optional<EmployeeVersion>findVersionsById(Long id);
+
+    @Query("select new org.chintanpatel.springbootmanytoone.ListVersion(count(e), max(e.updatedAt), " +
+            "(select r.removedAt from ListRemoval r where r.tableName = 'employee')) from Employee e")
+    ListVersion findListVersion();
+
+    // Moves the list's removal time past the newest update it is about to lose; called before rows leave the list
+
+    @Modifying(flushAutomatically = true)
+    @Query("update ListRemoval r set r.removedAt = greatest(r.removedAt, instant, " +
+            "coalesce((select max(e.updatedAt) from Employee e), instant)) where r.tableName = 'employee'")
+    int recordRemoval();
+
+    @Query("select e from Employee e join fetch e.department where e.id > :afterId order by e.id asc")
+    List<Employee>findPageAfter(Long afterId, Limit limit);
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,22 @@
+package org.chintanpatel.springbootmanytoone.employee;
+
+import java.util.Collection;
+
+// Writes on EmployeeRepository that keep the employee cache region warm: each touches only the rows it names and
+// soft-locks only those ids in the second-level cache until its transaction ends
+
+public interface EmployeeRepositoryCustom {
+
+    // Edit form write: one UPDATE guarded by the version the form was rendered with, no SELECT of the row first;
+    // no row updated means the employee is gone or someone else saved first
+
+    int updateIfVersionMatches(Employee employee);
+
+    int deleteEmployeeById(Long id);
+
+    // Moves the employees to another department, bumping their versions so open edit forms turn stale
+
+    int reassignDepartment(Collection<Long> ids, Long departmentId);
+
+    int deleteEmployeesByIdIn(Collection<Long> ids);
+}
@@ -0,0 +1,76 @@
+package org.chintanpatel.springbootmanytoone.employee;
+
+import jakarta.persistence.EntityManager;
+import org.chintanpatel.springbootmanytoone.JdbcWrites;
+
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+// Plain SQL through JdbcWrites, so an edit or delete locks and invalidates only its own rows in the employee cache region
+
+class EmployeeRepositoryCustomImpl implements EmployeeRepositoryCustom {
+
+    // Everything the edit form and the REST API write
+    private static final List<String> EDITABLE_ATTRIBUTES = List.of("firstName", "middleName", "lastName", "address",
+            "email", "mobileNumber", "hiringDate", "salary", "userName", "password", "department");
+
+    private final EntityManager entityManager;
+
+    EmployeeRepositoryCustomImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public int updateIfVersionMatches(Employee employee) {
+        Instant updatedAt = Instant.now();
+        int count = JdbcWrites.updateIfVersionMatches(entityManager, employee, EDITABLE_ATTRIBUTES, updatedAt);
+        if (count > 0) {
+            employee.setVersion(employee.getVersion() + 1);
+            employee.setUpdatedAt(updatedAt);
+        }
+        return count;
+    }
+
+    @Override
+    public int reassignDepartment(Collection<Long> ids, Long departmentId) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        List<Long> moved = List.copyOf(ids);
+        String sql = "update employee set department_id = ?, version = version + 1, updated_at = ? where employee_id in (" + placeholders(moved.size()) + ")";
+        Instant updatedAt = Instant.now();
+        return JdbcWrites.execute(entityManager, Employee.class, moved, sql, statement -> {
+            statement.setLong(1, departmentId);
+            statement.setObject(2, updatedAt.atOffset(ZoneOffset.UTC));
+            for (int i = 0; i < moved.size(); i++) {
+                statement.setLong(i + 3, moved.get(i));
+            }
+        });
+    }
+
+    @Override
+    public int deleteEmployeeById(Long id) {
+        return deleteEmployeesByIdIn(List.of(id));
+    }
+
+    @Override
+    public int deleteEmployeesByIdIn(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        List<Long> deleted = List.copyOf(ids);
+        String sql = "delete from employee where employee_id in (" + placeholders(deleted.size()) + ")";
+        return JdbcWrites.execute(entityManager, Employee.class, deleted, sql, statement -> {
+            for (int i = 0; i < deleted.size(); i++) {
+                statement.setLong(i + 1, deleted.get(i));
+            }
+        });
+    }
+
+    private static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+}
@@ -0,0 +1,37 @@
+package org.chintanpatel.springbootmanytoone.employee;
+
+import org.chintanpatel.springbootmanytoone.department.Department;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+// Body of REST create and update calls; validated through the Employee entity's constraints
+
+public record EmployeeRequest(String firstName,
+                              String middleName,
+                              String lastName,
+                              String address,
+                              String email,
+                              String mobileNumber,
+                              LocalDate hiringDate,
+                              BigDecimal salary,
+                              String userName,
+                              String password,
+                              Long departmentId) {
+
+    public Employee toEmployee(Department department) {
+        Employee employee = new Employee();
+        employee.setFirstName(firstName);
+        employee.setMiddleName(middleName);
+        employee.setLastName(lastName);
+        employee.setAddress(address);
+        employee.setEmail(email);
+        employee.setMobileNumber(mobileNumber);
+        employee.setHiringDate(hiringDate);
+        employee.setSalary(salary);
+        employee.setUserName(userName);
+        employee.setPassword(password);
+        employee.setDepartment(department);
+        return employee;
+    }
+}
@@ -0,0 +1,161 @@
+package org.chintanpatel.springbootmanytoone.employee;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Validator;
+import org.chintanpatel.springbootmanytoone.ETags;
+import org.chintanpatel.springbootmanytoone.ListVersion;
+import org.chintanpatel.springbootmanytoone.department.Department;
+import org.chintanpatel.springbootmanytoone.department.DepartmentService;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ProblemDetail;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+import java.net.URI;
+import java.util.List;
+import java.util.Set;
+
+// JSON REST API for employees. Single resources carry a strong ETag from their own and their department's version
+// column, and the list carries a weak ETag and a Last-Modified covering both tables, so unchanged reads answer 304
+// before any entity is loaded.
+
+@RestController
+public class EmployeeRestController {
+
+    private final EmployeeService employeeService;
+    private final DepartmentService departmentService;
+    private final Validator validator;
+
+    public EmployeeRestController(EmployeeService employeeService, DepartmentService departmentService, Validator validator) {
+        this.employeeService = employeeService;
+        this.departmentService = departmentService;
+        this.validator = validator;
+    }
+
+    // Logic to list employees one keyset page at a time
+
+    @GetMapping("/api/employees")
+    public ResponseEntity<List<EmployeeDto>> listEmployees(@RequestParam(required = false) Long after,
+                                                           @RequestParam(defaultValue = "50") int size,
+                                                           WebRequest webRequest) {
+        ListVersion listVersion = employeeService.getEmployeeListVersion();
+        // Also writes the ETag and Last-Modified headers onto the response
+        if (webRequest.checkNotModified(listVersion.etag(), listVersion.lastModifiedMillis())) {
+            return null;
+        }
+        int pageSize = EmployeeService.pageSize(size);
+        List<Employee> rows = employeeService.getEmployeesAfter(after, pageSize);
+        List<EmployeeDto> employees = rows.stream().limit(pageSize).map(EmployeeDto::from).toList();
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().cacheControl(CacheControl.noCache());
+        if (rows.size() > pageSize) {
+            response.header(HttpHeaders.LINK, "</api/employees?after=" + employees.getLast().id() + "&size=" + pageSize + ">; rel=\"next\"");
+        }
+        return response.body(employees);
+    }
+
+    // Logic to get one employee; the version is checked first so a matching If-None-Match costs one tiny query
+
+    @GetMapping("/api/employees/{id}")
+    public ResponseEntity<EmployeeDto> getEmployee(@PathVariable Long id, WebRequest webRequest) {
+        EmployeeVersion versions = employeeService.getEmployeeVersions(id);
+        if (versions == null) {
+            return ResponseEntity.notFound().build();
+        }
+        if (webRequest.checkNotModified(versions.etag())) {
+            return null;
+        }
+        Employee employee = employeeService.getEmployeeById(id);
+        if (employee == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(EmployeeDto.from(employee));
+    }
+
+    // Logic to create an employee
+
+    @PostMapping("/api/employees")
+    public ResponseEntity<EmployeeDto> createEmployee(@RequestBody EmployeeRequest request) {
+        Employee employee = toValidEmployee(request);
+        employeeService.addEmployee(employee);
+        return ResponseEntity.created(URI.create("/api/employees/" + employee.getId()))
+                .eTag(ETags.of(employee.getVersion(), employee.getDepartment().getVersion()))
+                .body(EmployeeDto.from(employee));
+    }
+
+    // Logic to update an employee; If-Match is required so an edit never overwrites a newer version
+
+    @PutMapping("/api/employees/{id}")
+    public ResponseEntity<Void> updateEmployee(@PathVariable Long id,
+                                               @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                               @RequestBody EmployeeRequest request) {
+        if (ifMatch == null) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_REQUIRED).build();
+        }
+        Long version = ETags.versionFromIfMatch(ifMatch, ifMatch.trim().equals("*") ? employeeService.getEmployeeVersion(id) : null);
+        Employee employee = toValidEmployee(request);
+        employee.setId(id);
+        employee.setVersion(version);
+        try {
+            employeeService.updateEmployee(employee);
+        } catch (OptimisticLockingFailureException ex) {
+            // Only the failure path pays for telling a missing row from a stale version
+            return employeeService.getEmployeeVersion(id) == null
+                    ? ResponseEntity.notFound().build()
+                    : ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+        }
+        return ResponseEntity.noContent().eTag(ETags.of(employee.getVersion(), employee.getDepartment().getVersion())).build();
+    }
+
+    // Logic to delete an employee, honouring If-Match when it is sent
+
+    @DeleteMapping("/api/employees/{id}")
+    public ResponseEntity<Void> deleteEmployee(@PathVariable Long id,
+                                               @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        if (ifMatch != null) {
+            Long current = employeeService.getEmployeeVersion(id);
+            if (current == null) {
+                return ResponseEntity.notFound().build();
+            }
+            if (!current.equals(ETags.versionFromIfMatch(ifMatch, current))) {
+                return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+            }
+        }
+        return employeeService.deleteEmployeeById(id) ? ResponseEntity.noContent().build() : ResponseEntity.notFound().build();
+    }
+
+    private Employee toValidEmployee(EmployeeRequest request) {
+        Department department = request.departmentId() == null ? null : departmentService.getDepartmentById(request.departmentId());
+        if (department != null && department.isDeletionPending()) {
+            // Its removal job would delete or move the employee straight away
+            throw new IllegalArgumentException(EmployeeController.DEPARTMENT_BEING_REMOVED);
+        }
+        Employee employee = request.toEmployee(department);
+        Set<ConstraintViolation<Employee>> violations = validator.validate(employee);
+        if (!violations.isEmpty()) {
+            throw new ConstraintViolationException(violations);
+        }
+        return employee;
+    }
+
+    @ExceptionHandler(ConstraintViolationException.class)
+    public ProblemDetail handleInvalidEmployee(ConstraintViolationException ex) {
+        ProblemDetail problem = ProblemDetail.forStatusAndDetail(HttpStatus.BAD_REQUEST, "Employee is not valid");
+        problem.setProperty("errors", ex.getConstraintViolations().stream().map(ConstraintViolation::getMessage).sorted().toList());
+        return problem;
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ProblemDetail handleInvalidDepartment(IllegalArgumentException ex) {
+        return ProblemDetail.forStatusAndDetail(HttpStatus.BAD_REQUEST, ex.getMessage());
+    }
+
+    @ExceptionHandler(EmployeeAlreadyExistsException.class)
+    public ProblemDetail handleDuplicateEmployee(EmployeeAlreadyExistsException ex) {
+        return ProblemDetail.forStatusAndDetail(HttpStatus.CONFLICT, ex.getMessage());
+    }
+}
@@ -0,0 +1,28 @@
+package org.chintanpatel.springbootmanytoone.employee;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+// Read-only projection holding only the columns rendered by the employee list page
+
+public record EmployeeRow(Long id,
+                          String firstName,
+                          String lastName,
+                          String mobileNumber,
+                          LocalDate hiringDate,
+                          BigDecimal salary,
+                          String userName,
+                          String departmentName) {
+
+    public static EmployeeRow from(Employee employee) {
+        return new EmployeeRow(
+                employee.getId(),
+                employee.getFirstName(),
+                employee.getLastName(),
+                employee.getMobileNumber(),
+                employee.getHiringDate(),
+                employee.getSalary(),
+                employee.getUserName(),
+                employee.getDepartment() != null ? employee.getDepartment().getDepartmentName() : null);
+    }
+}
@@ -0,0 +1,25 @@
+package org.chintanpatel.springbootmanytoone.employee;
+
+import java.util.Collection;
+import java.util.List;
+
+// Backend used by EmployeeService to resolve an employee name search into ranked employee ids
+
+public interface EmployeeSearchEngine {
+
+    List<Long> searchEmployeeIds(String employeeName);
+
+    default void index(Employee employee) {
+    }
+
+    default void remove(Long employeeId) {
+    }
+
+    default void reassign(Collection<Long> employeeIds, Long departmentId) {
+    }
+
+    // Called once a department delete commits, for the employees the ON DELETE CASCADE foreign key removed with it
+
+    default void removeByDepartment(Long departmentId) {
+    }
+}
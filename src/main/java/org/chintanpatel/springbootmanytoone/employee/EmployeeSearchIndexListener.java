@@ -0,0 +1,31 @@
+package org.chintanpatel.springbootmanytoone.employee;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.chintanpatel.springbootmanytoone.TransactionHooks;
+import org.springframework.beans.factory.ObjectProvider;
+
+// Keeps the active search engine's index in step with employee writes. The index only changes once the
+// transaction commits, so a rolled-back write leaves no entry behind.
+
+public class EmployeeSearchIndexListener {
+
+    private final ObjectProvider<EmployeeSearchEngine> employeeSearchEngine;
+
+    public EmployeeSearchIndexListener(ObjectProvider<EmployeeSearchEngine> employeeSearchEngine) {
+        this.employeeSearchEngine = employeeSearchEngine;
+    }
+
+    @PostPersist
+    @PostUpdate
+    public void onSaved(Employee employee) {
+        TransactionHooks.afterCommit(() -> employeeSearchEngine.ifAvailable(engine -> engine.index(employee)));
+    }
+
+    @PostRemove
+    public void onRemoved(Employee employee) {
+        Long id = employee.getId();
+        TransactionHooks.afterCommit(() -> employeeSearchEngine.ifAvailable(engine -> engine.remove(id)));
+    }
+}
@@ -1,18 +1,38 @@
 package org.chintanpatel.springbootmanytoone.employee;
 
+import org.chintanpatel.springbootmanytoone.JsonStreamFormat;
+import org.chintanpatel.springbootmanytoone.ListVersion;
+
+import java.io.OutputStream;
+import java.io.Reader;
+import java.util.Collection;
 import java.util.List;
 
 public interface EmployeeService {
 
+    int MAX_PAGE_SIZE = 500;
+
+    // Logic to turn a requested page size into the one the service actually serves
+
+    static int pageSize(int requested) {
+        return Math.clamp(requested, 1, MAX_PAGE_SIZE);
+    }
+
     void addEmployee(Employee employee);
 
     List<Employee>getAllEmployeeList();
 
+    EmployeePage getEmployeePage(Long afterId, Long beforeId, int size);
+
     Employee getEmployeeById(Long id);
 
     void updateEmployee(Employee employee);
 
-    void deleteEmployeeById(Long id);
+    boolean deleteEmployeeById(Long id);
+
+    int deleteEmployeesByIds(Collection<Long> ids);
+
+    int reassignEmployees(Collection<Long> ids, Long departmentId);
 
     List<Employee>searchEmployeeByEmployeeName(String employeeName);
 
@@ -21,4 +41,20 @@ public interface EmployeeService {
     boolean isEmailExist(String email);
 
     boolean isUserNameExist(String userName);
+
+    EmployeeImportReport importEmployees(Reader input, EmployeeFileFormat format);
+
+    long exportEmployees(OutputStream output, EmployeeFileFormat format);
+
+    long streamEmployees(OutputStream output, JsonStreamFormat format);
+
+    long streamEmployeesByDepartmentName(String departmentName, OutputStream output, JsonStreamFormat format);
+
+    Long getEmployeeVersion(Long id);
+
+    EmployeeVersion getEmployeeVersions(Long id);
+
+    ListVersion getEmployeeListVersion();
+
+    List<Employee>getEmployeesAfter(Long afterId, int size);
 }
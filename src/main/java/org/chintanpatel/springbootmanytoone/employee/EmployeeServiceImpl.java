@@ -1,23 +1,63 @@
 package org.chintanpatel.springbootmanytoone.employee;
 
+import org.chintanpatel.springbootmanytoone.JsonStreamFormat;
+import org.chintanpatel.springbootmanytoone.JsonStreamWriter;
+import org.chintanpatel.springbootmanytoone.ListVersion;
+import org.chintanpatel.springbootmanytoone.TransactionHooks;
+import org.chintanpatel.springbootmanytoone.department.DepartmentService;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.OutputStream;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Transactional
 @Service("employeeService")
 public class EmployeeServiceImpl implements EmployeeService {
 
+    // Caps the ids in one DELETE: the IN list and its bind parameters stay small however many rows are selected,
+    // and the statement text repeats, so the database parses it once instead of once per selection size
+    static final int DELETE_BATCH_SIZE = 50;
+    static final int STREAM_CHUNK_SIZE = 500;
+
     private final EmployeeRepository employeeRepository;
+    private final EmployeeSearchEngine employeeSearchEngine;
+    private final DepartmentService departmentService;
+    private final EmployeeImporter employeeImporter;
+    private final EmployeeExporter employeeExporter;
+    private final JsonStreamWriter jsonStreamWriter;
 
-    public EmployeeServiceImpl(EmployeeRepository employeeRepository) {
+    public EmployeeServiceImpl(EmployeeRepository employeeRepository, EmployeeSearchEngine employeeSearchEngine, DepartmentService departmentService, EmployeeImporter employeeImporter, EmployeeExporter employeeExporter, JsonStreamWriter jsonStreamWriter) {
         this.employeeRepository = employeeRepository;
+        this.employeeSearchEngine = employeeSearchEngine;
+        this.departmentService = departmentService;
+        this.employeeImporter = employeeImporter;
+        this.employeeExporter = employeeExporter;
+        this.jsonStreamWriter = jsonStreamWriter;
     }
 
     @Override
     public void addEmployee(Employee employee) {
-        employeeRepository.save(employee);
+        // A single INSERT; the unique constraints on email and user_name reject duplicates
+        try {
+            employeeRepository.saveAndFlush(employee);
+        } catch (DataIntegrityViolationException ex) {
+            EmployeeAlreadyExistsException duplicate = EmployeeAlreadyExistsException.from(ex);
+            throw duplicate != null ? duplicate : ex;
+        }
     }
 
     @Override
@@ -25,6 +65,39 @@ public class EmployeeServiceImpl implements EmployeeService {
         return employeeRepository.findAll();
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public EmployeePage getEmployeePage(Long afterId, Long beforeId, int size) {
+        int pageSize = EmployeeService.pageSize(size);
+        // Fetch one extra row to know whether another page exists in the direction of travel
+        Limit limit = Limit.of(pageSize + 1);
+        if (beforeId != null) {
+            List<EmployeeRow> rows = new ArrayList<>(employeeRepository.findRowsBefore(beforeId, limit));
+            boolean hasPrevious = rows.size() > pageSize;
+            if (hasPrevious) {
+                rows.removeLast();
+            }
+            Collections.reverse(rows);
+            if (rows.isEmpty()) {
+                return new EmployeePage(rows, null, beforeId - 1, pageSize);
+            }
+            return new EmployeePage(rows, hasPrevious ? rows.getFirst().id() : null, rows.getLast().id(), pageSize);
+        }
+        List<EmployeeRow> rows = new ArrayList<>(afterId != null
+                ? employeeRepository.findRowsAfter(afterId, limit)
+                : employeeRepository.findFirstRows(limit));
+        boolean hasNext = rows.size() > pageSize;
+        if (hasNext) {
+            rows.removeLast();
+        }
+        // Link back only when rows precede the cursor, so a first page reached as ?after=0 has no Previous
+        boolean hasPrevious = afterId != null && employeeRepository.existsByIdLessThanEqual(afterId);
+        if (rows.isEmpty()) {
+            return new EmployeePage(rows, hasPrevious ? afterId + 1 : null, null, pageSize);
+        }
+        return new EmployeePage(rows, hasPrevious ? rows.getFirst().id() : null, hasNext ? rows.getLast().id() : null, pageSize);
+    }
+
     @Override
     public Employee getEmployeeById(Long id) {
         return employeeRepository.findById(id).orElse(null);
@@ -32,22 +105,80 @@ public class EmployeeServiceImpl implements EmployeeService {
 
     @Override
     public void updateEmployee(Employee employee) {
-        employeeRepository.save(employee);
+        int updated = 0;
+        if (employee.getVersion() != null) {
+            try {
+                updated = employeeRepository.updateIfVersionMatches(employee);
+            } catch (DataIntegrityViolationException ex) {
+                EmployeeAlreadyExistsException duplicate = EmployeeAlreadyExistsException.from(ex);
+                throw duplicate != null ? duplicate : ex;
+            }
+        }
+        // A missing row or a different version means someone else saved first; either way the form is stale
+        if (updated == 0) {
+            throw new ObjectOptimisticLockingFailureException(Employee.class, employee.getId());
+        }
+        // The plain SQL update bypasses the entity listener, so the search index follows here once the edit commits
+        TransactionHooks.afterCommit(() -> employeeSearchEngine.index(employee));
+    }
+
+    @Override
+    public boolean deleteEmployeeById(Long id) {
+        employeeRepository.recordRemoval();
+        if (employeeRepository.deleteEmployeeById(id) == 0) {
+            return false;
+        }
+        TransactionHooks.afterCommit(() -> employeeSearchEngine.remove(id));
+        return true;
+    }
+
+    @Override
+    public int deleteEmployeesByIds(Collection<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return 0;
+        }
+        List<Long> removed = List.copyOf(ids);
+        employeeRepository.recordRemoval();
+        int deleted = 0;
+        for (int from = 0; from < removed.size(); from += DELETE_BATCH_SIZE) {
+            deleted += employeeRepository.deleteEmployeesByIdIn(removed.subList(from, Math.min(from + DELETE_BATCH_SIZE, removed.size())));
+        }
+        TransactionHooks.afterCommit(() -> removed.forEach(employeeSearchEngine::remove));
+        return deleted;
     }
 
     @Override
-    public void deleteEmployeeById(Long id) {
-        employeeRepository.deleteById(id);
+    public int reassignEmployees(Collection<Long> ids, Long departmentId) {
+        if (ids == null || ids.isEmpty()) {
+            return 0;
+        }
+        List<Long> moved = List.copyOf(ids);
+        int reassigned = employeeRepository.reassignDepartment(moved, departmentId);
+        TransactionHooks.afterCommit(() -> employeeSearchEngine.reassign(moved, departmentId));
+        return reassigned;
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<Employee> searchEmployeeByEmployeeName(String employeeName) {
-        return employeeRepository.findByFirstNameContainingIgnoreCaseOrLastNameContainingIgnoreCase(employeeName,employeeName);
+        List<Long> rankedIds = employeeSearchEngine.searchEmployeeIds(employeeName);
+        if (rankedIds.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Employee> employeesById = employeeRepository.findByIdIn(rankedIds).stream()
+                .collect(Collectors.toMap(Employee::getId, Function.identity()));
+        return rankedIds.stream().map(employeesById::get).filter(Objects::nonNull).toList();
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<Employee> searchEmployeeByDepartmentName(String departmentName) {
-        return employeeRepository.findByDepartmentNameContainingIgnoreCase(departmentName);
+        // Match against the small department table first, then seek employees on the indexed department_id
+        List<Long> departmentIds = departmentService.getDepartmentIdsByDepartmentName(departmentName);
+        if (departmentIds.isEmpty()) {
+            return List.of();
+        }
+        return employeeRepository.findByDepartmentIdIn(departmentIds);
     }
 
     @Override
@@ -59,4 +190,70 @@ public class EmployeeServiceImpl implements EmployeeService {
     public boolean isUserNameExist(String userName) {
         return employeeRepository.existsByUserName(userName);
     }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public EmployeeImportReport importEmployees(Reader input, EmployeeFileFormat format) {
+        // Each chunk commits on its own, so the import must not run inside one surrounding transaction
+        return employeeImporter.importEmployees(input, format);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long exportEmployees(OutputStream output, EmployeeFileFormat format) {
+        return employeeExporter.exportEmployees(output, format);
+    }
+
+    // Rows are read in keyset chunks, each in its own short transaction, so no connection or cursor is held
+    // while a slow client drains the socket
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public long streamEmployees(OutputStream output, JsonStreamFormat format) {
+        return jsonStreamWriter.write(inChunks(afterId -> employeeRepository.findRowsAfter(afterId, Limit.of(STREAM_CHUNK_SIZE))), output, format);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public long streamEmployeesByDepartmentName(String departmentName, OutputStream output, JsonStreamFormat format) {
+        List<Long> departmentIds = departmentService.getDepartmentIdsByDepartmentName(departmentName);
+        if (departmentIds.isEmpty()) {
+            return jsonStreamWriter.write(Stream.empty(), output, format);
+        }
+        return jsonStreamWriter.write(inChunks(afterId -> employeeRepository.findRowsByDepartmentIdInAfter(departmentIds, afterId, Limit.of(STREAM_CHUNK_SIZE))), output, format);
+    }
+
+    // Logic to fetch the next chunk only once the writer has consumed the previous one; a short chunk is the last
+
+    private static Stream<EmployeeRow> inChunks(Function<Long, List<EmployeeRow>> chunkAfter) {
+        return Stream.iterate(chunkAfter.apply(0L), chunk -> !chunk.isEmpty(),
+                        chunk -> chunk.size() < STREAM_CHUNK_SIZE ? List.of() : chunkAfter.apply(chunk.getLast().id()))
+                .flatMap(List::stream);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Long getEmployeeVersion(Long id) {
+        return employeeRepository.findVersionById(id).orElse(null);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public EmployeeVersion getEmployeeVersions(Long id) {
+        return employeeRepository.findVersionsById(id).orElse(null);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ListVersion getEmployeeListVersion() {
+        // Listed employees carry their department's name, so a renamed department must change the list version too
+        return employeeRepository.findListVersion().including(departmentService.getDepartmentListVersion());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Employee> getEmployeesAfter(Long afterId, int size) {
+        // One row past the clamped size tells the caller that another page follows
+        return employeeRepository.findPageAfter(afterId == null ? 0L : afterId, Limit.of(EmployeeService.pageSize(size) + 1));
+    }
 }
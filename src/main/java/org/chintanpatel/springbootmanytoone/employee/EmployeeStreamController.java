@@ -0,0 +1,68 @@
+package org.chintanpatel.springbootmanytoone.employee;
+
+import org.chintanpatel.springbootmanytoone.JsonStreamFormat;
+import org.chintanpatel.springbootmanytoone.JsonStreamWriter;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+// Read-only JSON API for dashboards. Results stream as NDJSON, or as server-sent events when the client
+// accepts text/event-stream, and are written off the request thread by the bounded streaming executor
+// (see StreamingConfiguration). Single employees are served by EmployeeRestController.
+
+@RestController
+public class EmployeeStreamController {
+
+    private final EmployeeService employeeService;
+    private final JsonStreamWriter jsonStreamWriter;
+
+    public EmployeeStreamController(EmployeeService employeeService, JsonStreamWriter jsonStreamWriter) {
+        this.employeeService = employeeService;
+        this.jsonStreamWriter = jsonStreamWriter;
+    }
+
+    // Logic to stream every employee
+
+    @GetMapping("/api/stream/employees")
+    public ResponseEntity<StreamingResponseBody> streamEmployees(@RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        JsonStreamFormat format = JsonStreamFormat.fromAccept(accept);
+        return stream(format, output -> employeeService.streamEmployees(output, format));
+    }
+
+    // Logic to stream employees matching a name, best match first
+
+    @GetMapping("/api/stream/employees/search/employeeName")
+    public ResponseEntity<StreamingResponseBody> searchEmployeeByName(String employeeName, @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        JsonStreamFormat format = JsonStreamFormat.fromAccept(accept);
+        return stream(format, output -> jsonStreamWriter.write(
+                employeeService.searchEmployeeByEmployeeName(employeeName).stream().map(EmployeeRow::from), output, format));
+    }
+
+    // Logic to stream employees of the matching departments
+
+    @GetMapping("/api/stream/employees/search/departmentName")
+    public ResponseEntity<StreamingResponseBody> searchEmployeeByDepartment(String departmentName, @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        JsonStreamFormat format = JsonStreamFormat.fromAccept(accept);
+        return stream(format, output -> employeeService.streamEmployeesByDepartmentName(departmentName, output, format));
+    }
+
+    private static ResponseEntity<StreamingResponseBody> stream(JsonStreamFormat format, StreamingResponseBody body) {
+        return ResponseEntity.ok()
+                .contentType(format.getMediaType())
+                .header(HttpHeaders.CACHE_CONTROL, "no-cache")
+                .body(body);
+    }
+
+    // Logic to turn a stream the streaming executor has no room for into 503, so clients back off and retry
+
+    @ExceptionHandler(TaskRejectedException.class)
+    public ResponseEntity<Void> handleStreamRejected() {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "1").build();
+    }
+}
@@ -0,0 +1,12 @@
+package org.chintanpatel.springbootmanytoone.employee;
+
+import org.chintanpatel.springbootmanytoone.ETags;
+
+// Versions behind an employee's strong ETag: its own row and the department whose name the representation carries
+
+public record EmployeeVersion(Long version, Long departmentVersion) {
+
+    public String etag() {
+        return ETags.of(version, departmentVersion);
+    }
+}
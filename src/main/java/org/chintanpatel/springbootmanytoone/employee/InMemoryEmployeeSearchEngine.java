@@ -0,0 +1,190 @@
+package org.chintanpatel.springbootmanytoone.employee;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+// In-JVM trigram index over employee names, used with the embedded database where pg_trgm is not available
+
+@Component
+@ConditionalOnProperty(name = "employee.search.engine", havingValue = "memory")
+public class InMemoryEmployeeSearchEngine implements EmployeeSearchEngine {
+
+    private final EmployeeRepository employeeRepository;
+    private final int maxResults;
+
+    private final Map<Long, String> fullNames = new ConcurrentHashMap<>();
+    private final Map<String, Set<Long>> trigramIndex = new ConcurrentHashMap<>();
+    // Only read and written under the lock, by index, remove and removeByDepartment
+    private final Map<Long, Long> departmentIds = new HashMap<>();
+    private final Map<Long, Set<Long>> employeeIdsByDepartment = new HashMap<>();
+
+    public InMemoryEmployeeSearchEngine(EmployeeRepository employeeRepository,
+                                        @Value("${employee.search.max-results:100}") int maxResults) {
+        this.employeeRepository = employeeRepository;
+        this.maxResults = maxResults;
+    }
+
+    // Logic to load the index from the employee table at startup
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        fullNames.clear();
+        trigramIndex.clear();
+        departmentIds.clear();
+        employeeIdsByDepartment.clear();
+        employeeRepository.findAllEmployeeNames().forEach(name -> put(name.id(), name.departmentId(), name.fullName()));
+    }
+
+    @Override
+    public synchronized void index(Employee employee) {
+        Long departmentId = employee.getDepartment() == null ? null : employee.getDepartment().getId();
+        put(employee.getId(), departmentId, String.join(" ", employee.getFirstName(), employee.getMiddleName(), employee.getLastName()));
+    }
+
+    @Override
+    public synchronized void remove(Long employeeId) {
+        String previous = fullNames.remove(employeeId);
+        if (previous != null) {
+            unpost(employeeId, trigrams(previous));
+        }
+        unlink(employeeId);
+    }
+
+    @Override
+    public synchronized void reassign(Collection<Long> employeeIds, Long departmentId) {
+        for (Long id : employeeIds) {
+            if (fullNames.containsKey(id)) {
+                link(id, departmentId);
+            }
+        }
+    }
+
+    @Override
+    public synchronized void removeByDepartment(Long departmentId) {
+        Set<Long> employeeIds = employeeIdsByDepartment.get(departmentId);
+        if (employeeIds != null) {
+            List.copyOf(employeeIds).forEach(this::remove);
+        }
+    }
+
+    @Override
+    public List<Long> searchEmployeeIds(String employeeName) {
+        String query = employeeName == null ? "" : employeeName.trim().toLowerCase(Locale.ROOT);
+        Collection<Long> candidates = candidates(query);
+        List<Map.Entry<Long, Integer>> matches = new ArrayList<>();
+        for (Long id : candidates) {
+            String fullName = fullNames.get(id);
+            if (fullName != null && fullName.contains(query)) {
+                matches.add(Map.entry(id, rank(fullName, query)));
+            }
+        }
+        return matches.stream()
+                .sorted(Map.Entry.<Long, Integer>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+                .limit(maxResults)
+                .map(Map.Entry::getKey)
+                .toList();
+    }
+
+    // Writes are serialized by the lock while searches read without it. The new trigrams are posted before the
+    // name is swapped and the stale ones dropped after, so a concurrent search always finds the old or the new name.
+
+    private void put(Long id, Long departmentId, String fullName) {
+        String normalized = fullName.toLowerCase(Locale.ROOT);
+        Set<String> current = trigrams(normalized);
+        for (String trigram : current) {
+            trigramIndex.computeIfAbsent(trigram, key -> ConcurrentHashMap.newKeySet()).add(id);
+        }
+        String previous = fullNames.put(id, normalized);
+        if (previous != null) {
+            Set<String> stale = trigrams(previous);
+            stale.removeAll(current);
+            unpost(id, stale);
+        }
+        link(id, departmentId);
+    }
+
+    private void link(Long id, Long departmentId) {
+        unlink(id);
+        if (departmentId != null) {
+            departmentIds.put(id, departmentId);
+            employeeIdsByDepartment.computeIfAbsent(departmentId, key -> new HashSet<>()).add(id);
+        }
+    }
+
+    private void unlink(Long id) {
+        Long departmentId = departmentIds.remove(id);
+        if (departmentId != null) {
+            employeeIdsByDepartment.computeIfPresent(departmentId, (key, ids) -> {
+                ids.remove(id);
+                return ids.isEmpty() ? null : ids;
+            });
+        }
+    }
+
+    // Logic to drop the id from the postings, removing a posting set once it is empty
+
+    private void unpost(Long id, Set<String> trigrams) {
+        for (String trigram : trigrams) {
+            trigramIndex.computeIfPresent(trigram, (key, ids) -> {
+                ids.remove(id);
+                return ids.isEmpty() ? null : ids;
+            });
+        }
+    }
+
+    int postingCount() {
+        return trigramIndex.size();
+    }
+
+    // Every indexed name containing the query contains all of its trigrams, so intersecting the postings narrows the scan
+
+    private Collection<Long> candidates(String query) {
+        if (query.length() < 3) {
+            return fullNames.keySet();
+        }
+        Set<Long> result = null;
+        for (String trigram : trigrams(query)) {
+            Set<Long> ids = trigramIndex.getOrDefault(trigram, Set.of());
+            if (result == null) {
+                result = new HashSet<>(ids);
+            } else {
+                result.retainAll(ids);
+            }
+            if (result.isEmpty()) {
+                break;
+            }
+        }
+        return result;
+    }
+
+    // Exact name matches rank above prefix matches, which rank above matches inside a name
+
+    private int rank(String fullName, String query) {
+        if (query.isEmpty()) {
+            return 0;
+        }
+        int rank = 0;
+        for (String part : fullName.split(" ")) {
+            if (part.equals(query)) {
+                rank = Math.max(rank, 2);
+            } else if (part.startsWith(query)) {
+                rank = Math.max(rank, 1);
+            }
+        }
+        return rank;
+    }
+
+    private static Set<String> trigrams(String value) {
+        Set<String> trigrams = new HashSet<>();
+        for (int i = 0; i + 3 <= value.length(); i++) {
+            trigrams.add(value.substring(i, i + 3));
+        }
+        return trigrams;
+    }
+}
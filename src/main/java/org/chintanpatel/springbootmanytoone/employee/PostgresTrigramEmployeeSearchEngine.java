@@ -0,0 +1,29 @@
+package org.chintanpatel.springbootmanytoone.employee;
+
+import org.chintanpatel.springbootmanytoone.LikePatterns;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+// Name search backed by a pg_trgm GIN index on first/middle/last name (migration V3), ranked by word similarity
+
+@Component
+@ConditionalOnProperty(name = "employee.search.engine", havingValue = "postgres", matchIfMissing = true)
+public class PostgresTrigramEmployeeSearchEngine implements EmployeeSearchEngine {
+
+    private final EmployeeRepository employeeRepository;
+    private final int maxResults;
+
+    public PostgresTrigramEmployeeSearchEngine(EmployeeRepository employeeRepository, @Value("${employee.search.max-results:100}") int maxResults) {
+        this.employeeRepository = employeeRepository;
+        this.maxResults = maxResults;
+    }
+
+    @Override
+    public List<Long> searchEmployeeIds(String employeeName) {
+        String term = employeeName == null ? "" : employeeName.trim();
+        return employeeRepository.searchEmployeeIdsByTrigram(term, LikePatterns.contains(term), maxResults);
+    }
+}
@@ -0,0 +1,38 @@
+-- Schema for a new database. Runs on PostgreSQL and on the embedded H2 database used by the tests.
+
+CREATE SEQUENCE department_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE employee_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE department (
+    department_id    BIGINT                      NOT NULL,
+    version          BIGINT       DEFAULT 0      NOT NULL,
+    updated_at       TIMESTAMP(6) WITH TIME ZONE,
+    department_name  VARCHAR(255)                NOT NULL,
+    deletion_pending BOOLEAN      DEFAULT FALSE  NOT NULL,
+    CONSTRAINT department_pkey PRIMARY KEY (department_id),
+    CONSTRAINT department_department_name_key UNIQUE (department_name)
+);
+
+CREATE TABLE employee (
+    employee_id   BIGINT                      NOT NULL,
+    version       BIGINT       DEFAULT 0      NOT NULL,
+    updated_at    TIMESTAMP(6) WITH TIME ZONE,
+    first_name    VARCHAR(255)                NOT NULL,
+    middle_name   VARCHAR(255)                NOT NULL,
+    last_name     VARCHAR(255)                NOT NULL,
+    address       VARCHAR(255)                NOT NULL,
+    email         VARCHAR(255)                NOT NULL,
+    mobile_number VARCHAR(255)                NOT NULL,
+    hiring_date   DATE                        NOT NULL,
+    salary        NUMERIC(10, 2)              NOT NULL,
+    user_name     VARCHAR(255)                NOT NULL,
+    password      VARCHAR(15)                 NOT NULL,
+    department_id BIGINT                      NOT NULL,
+    CONSTRAINT employee_pkey PRIMARY KEY (employee_id),
+    CONSTRAINT employee_email_key UNIQUE (email),
+    CONSTRAINT employee_user_name_key UNIQUE (user_name),
+    CONSTRAINT employee_department_id_fkey FOREIGN KEY (department_id) REFERENCES department (department_id) ON DELETE CASCADE
+);
+
+-- email, user_name and department_name are indexed by their unique constraints
+CREATE INDEX employee_department_id_idx ON employee (department_id);
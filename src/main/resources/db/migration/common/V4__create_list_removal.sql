@@ -0,0 +1,10 @@
+-- Last time a row left the department or employee list. Removing the newest row moves a list's newest updated_at
+-- back, so the lists' Last-Modified is the later of the two. Runs on PostgreSQL and on the embedded H2 database.
+
+CREATE TABLE list_removal (
+    table_name VARCHAR(64)                 NOT NULL,
+    removed_at TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    CONSTRAINT list_removal_pkey PRIMARY KEY (table_name)
+);
+
+INSERT INTO list_removal (table_name, removed_at) VALUES ('department', CURRENT_TIMESTAMP), ('employee', CURRENT_TIMESTAMP);
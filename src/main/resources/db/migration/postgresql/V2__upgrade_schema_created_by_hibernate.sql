@@ -0,0 +1,29 @@
+-- Databases that were created by hbm2ddl.auto=update are baselined at version 1 (spring.flyway.baseline-on-migrate)
+-- and brought up to the V1 schema here. On a database created by V1 every statement is a no-op.
+
+ALTER TABLE department ADD COLUMN IF NOT EXISTS version BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE department ADD COLUMN IF NOT EXISTS updated_at TIMESTAMP(6) WITH TIME ZONE;
+ALTER TABLE department ADD COLUMN IF NOT EXISTS deletion_pending BOOLEAN DEFAULT FALSE NOT NULL;
+ALTER TABLE employee ADD COLUMN IF NOT EXISTS version BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE employee ADD COLUMN IF NOT EXISTS updated_at TIMESTAMP(6) WITH TIME ZONE;
+
+-- The original schema gave employee.department_id a serial default, which only ever hid missing departments
+ALTER TABLE employee ALTER COLUMN department_id DROP DEFAULT;
+
+-- A unique index raises the same constraint name on duplicates as the unique constraint it stands in for
+CREATE UNIQUE INDEX IF NOT EXISTS department_department_name_key ON department (department_name);
+CREATE UNIQUE INDEX IF NOT EXISTS employee_email_key ON employee (email);
+CREATE UNIQUE INDEX IF NOT EXISTS employee_user_name_key ON employee (user_name);
+CREATE INDEX IF NOT EXISTS employee_department_id_idx ON employee (department_id);
+
+-- Ids moved from IDENTITY columns to pooled-lo sequences (blocks of 50). Move each sequence past both the highest
+-- existing id and the last block already handed out, so no running instance can be given an id twice.
+CREATE SEQUENCE IF NOT EXISTS department_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS employee_seq START WITH 1 INCREMENT BY 50;
+
+SELECT setval('department_seq', GREATEST(
+        (SELECT COALESCE(MAX(department_id), 0) + 1 FROM department),
+        (SELECT last_value + CASE WHEN is_called THEN 50 ELSE 0 END FROM department_seq)), false);
+SELECT setval('employee_seq', GREATEST(
+        (SELECT COALESCE(MAX(employee_id), 0) + 1 FROM employee),
+        (SELECT last_value + CASE WHEN is_called THEN 50 ELSE 0 END FROM employee_seq)), false);
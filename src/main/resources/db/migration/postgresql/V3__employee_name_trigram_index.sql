@@ -0,0 +1,7 @@
+-- Backs the employee name search (PostgresTrigramEmployeeSearchEngine). Creating the extension needs a role that
+-- may create extensions; otherwise have it created once by a superuser before migrating.
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS employee_full_name_trgm_idx
+    ON employee USING gin ((first_name || ' ' || middle_name || ' ' || last_name) gin_trgm_ops);
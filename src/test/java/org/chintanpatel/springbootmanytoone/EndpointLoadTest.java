@@ -0,0 +1,198 @@
+package org.chintanpatel.springbootmanytoone;
+
+import org.HdrHistogram.Histogram;
+import org.chintanpatel.springbootmanytoone.department.Department;
+import org.chintanpatel.springbootmanytoone.department.DepartmentRepository;
+import org.chintanpatel.springbootmanytoone.employee.EmployeeRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongFunction;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Drives the employee list, the name search and the create form over HTTP at each configured concurrency,
+// against the app on a random port with the embedded database seeded by SyntheticDataGenerator.
+// The app is started once per thread mode (platform or virtual request threads), so the modes can be compared on the same data.
+// Prints throughput and HdrHistogram percentiles per endpoint and writes each full distribution to
+// target/loadtest/<endpoint>-<threads>-c<concurrency>.hgrm.
+// Off by default; run with: mvn test -Dtest=EndpointLoadTest -Dloadtest=true
+// Optional: -Dloadtest.threads=platform,virtual -Dloadtest.concurrency=1,16,64,256 -Dloadtest.seconds=10 -Dloadtest.employees=10000 -Dloadtest.seed=42
+
+@EnabledIfSystemProperty(named = "loadtest", matches = "true")
+class EndpointLoadTest {
+
+    private static final List<String> THREADS = Arrays.stream(System.getProperty("loadtest.threads", "platform").split(","))
+            .map(String::trim).toList();
+    private static final List<Integer> CONCURRENCY = Arrays.stream(System.getProperty("loadtest.concurrency", "1,16,64,256").split(","))
+            .map(String::trim).map(Integer::valueOf).toList();
+    private static final int SECONDS = Integer.getInteger("loadtest.seconds", 10);
+    private static final int EMPLOYEES = Integer.getInteger("loadtest.employees", 10_000);
+    private static final int DEPARTMENTS = 50;
+    private static final long SEED = Long.getLong("loadtest.seed", 42L);
+    private static final Path REPORT_DIR = Path.of("target", "loadtest");
+
+    private record Endpoint(String name, LongFunction<HttpRequest> request, Predicate<HttpResponse<Void>> ok) {
+    }
+
+    private record Result(String endpoint, String threads, int concurrency, long requests, long errors, double throughput, Histogram latencies) {
+
+        @Override
+        public String toString() {
+            return String.format("%-12s %-8s c=%-4d requests=%-8d errors=%-6d throughput=%8.1f req/s  p50=%7.2f  p90=%7.2f  p99=%7.2f  p99.9=%7.2f  max=%7.2f ms",
+                    endpoint, threads, concurrency, requests, errors, throughput, millis(0.50), millis(0.90), millis(0.99), millis(0.999),
+                    latencies.getMaxValue() / 1e6);
+        }
+
+        private double millis(double quantile) {
+            return latencies.getValueAtPercentile(quantile * 100) / 1e6;
+        }
+    }
+
+    @Test
+    void loadEmployeeEndpoints() throws Exception {
+        Files.createDirectories(REPORT_DIR);
+        List<Result> results = new ArrayList<>();
+        for (String threads : THREADS) {
+            results.addAll(run(threads));
+        }
+
+        assertThat(results).allSatisfy(result -> assertThat(result.requests()).isPositive());
+        // The lowest concurrency is the baseline and has to be clean; errors above it are what this run is looking for
+        assertThat(results).filteredOn(result -> result.concurrency() == CONCURRENCY.getFirst())
+                .allSatisfy(result -> assertThat(result.errors()).isZero());
+    }
+
+    // Logic to start the app with the given request threads, seed it and load every endpoint at every concurrency
+
+    private List<Result> run(String threads) throws Exception {
+        assertThat(threads).isIn("platform", "virtual");
+        SyntheticDataGenerator generator = new SyntheticDataGenerator(SEED);
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(SpringBootManyToOneApplication.class)
+                .run("--server.port=0",
+                        "--spring.threads.virtual.enabled=" + threads.equals("virtual"),
+                        "--spring.thymeleaf.cache=true",
+                        "--sql.monitor.enabled=false",
+                        "--spring.jpa.properties.hibernate.generate_statistics=false")) {
+            // The embedded database outlives the context while other contexts hold it open, so every mode starts from the same rows
+            TestFixtures.deleteAll(context.getBean(EmployeeRepository.class), context.getBean(DepartmentRepository.class));
+            List<Department> departments = generator.seed(context, DEPARTMENTS, EMPLOYEES);
+            String base = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+            // Created employees continue the generator's index range, so every post is a new unique row
+            AtomicLong nextEmployee = new AtomicLong(EMPLOYEES);
+            List<Endpoint> endpoints = List.of(
+                    new Endpoint("list",
+                            n -> HttpRequest.newBuilder(URI.create(base + "/employees?size=50")).GET().build(),
+                            response -> response.statusCode() == 200),
+                    new Endpoint("nameSearch",
+                            n -> HttpRequest.newBuilder(URI.create(base + "/employees/search/employeeName?employeeName="
+                                    + SyntheticDataGenerator.FIRST_NAMES.get((int) (n % SyntheticDataGenerator.FIRST_NAMES.size())))).GET().build(),
+                            response -> response.statusCode() == 200),
+                    new Endpoint("create",
+                            n -> {
+                                long index = nextEmployee.getAndIncrement();
+                                return HttpRequest.newBuilder(URI.create(base + "/employees/insertOrUpdateEmployee"))
+                                        .header("Content-Type", "application/x-www-form-urlencoded")
+                                        .POST(HttpRequest.BodyPublishers.ofString(formBody(generator.employeeForm(index, departments.get((int) (index % DEPARTMENTS))))))
+                                        .build();
+                            },
+                            // A valid form redirects to the list (the flash message session may add ;jsessionid); a re-rendered form or an error page is a failure
+                            response -> response.statusCode() == 302
+                                    && response.headers().firstValue("Location").orElse("").split(";")[0].endsWith("/employees")));
+
+            HttpClient client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .executor(Executors.newVirtualThreadPerTaskExecutor())
+                    .build();
+            List<Result> results = new ArrayList<>();
+            for (Endpoint endpoint : endpoints) {
+                // Warm up the JIT, the template cache and the connection pool before measuring
+                drive(client, endpoint, threads, Math.min(CONCURRENCY.getLast(), 16), Duration.ofSeconds(2));
+                for (int concurrency : CONCURRENCY) {
+                    Result result = drive(client, endpoint, threads, concurrency, Duration.ofSeconds(SECONDS));
+                    System.out.println(result);
+                    writeDistribution(result);
+                    results.add(result);
+                }
+            }
+            return results;
+        }
+    }
+
+    // Closed-loop clients: each sends its next request as soon as the previous one completes, until the deadline
+
+    private Result drive(HttpClient client, Endpoint endpoint, String threads, int clients, Duration duration) throws Exception {
+        AtomicLong sequence = new AtomicLong();
+        AtomicLong errors = new AtomicLong();
+        long start = System.nanoTime();
+        long deadline = start + duration.toNanos();
+        Histogram latencies = new Histogram(3);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<Histogram>> futures = new ArrayList<>();
+            for (int i = 0; i < clients; i++) {
+                futures.add(executor.submit(() -> {
+                    Histogram histogram = new Histogram(3);
+                    while (System.nanoTime() < deadline) {
+                        HttpRequest request = endpoint.request().apply(sequence.getAndIncrement());
+                        long sent = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                            if (!endpoint.ok().test(response)) {
+                                errors.incrementAndGet();
+                                continue;
+                            }
+                        } catch (IOException ex) {
+                            errors.incrementAndGet();
+                            continue;
+                        }
+                        histogram.recordValue(System.nanoTime() - sent);
+                    }
+                    return histogram;
+                }));
+            }
+            for (Future<Histogram> future : futures) {
+                latencies.add(future.get());
+            }
+        }
+        double elapsedSeconds = (System.nanoTime() - start) / 1e9;
+        return new Result(endpoint.name(), threads, clients, latencies.getTotalCount(), errors.get(),
+                latencies.getTotalCount() / elapsedSeconds, latencies);
+    }
+
+    private static void writeDistribution(Result result) throws IOException {
+        Path file = REPORT_DIR.resolve(result.endpoint() + "-" + result.threads() + "-c" + result.concurrency() + ".hgrm");
+        try (PrintStream out = new PrintStream(Files.newOutputStream(file), true, StandardCharsets.UTF_8)) {
+            // Values in the file are milliseconds
+            result.latencies().outputPercentileDistribution(out, 1e6);
+        }
+    }
+
+    private static String formBody(Map<String, String> form) {
+        return form.entrySet().stream()
+                .map(field -> URLEncoder.encode(field.getKey(), StandardCharsets.UTF_8) + "=" + URLEncoder.encode(field.getValue(), StandardCharsets.UTF_8))
+                .collect(Collectors.joining("&"));
+    }
+}
@@ -0,0 +1,111 @@
+package org.chintanpatel.springbootmanytoone;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.chintanpatel.springbootmanytoone.department.Department;
+import org.chintanpatel.springbootmanytoone.department.DepartmentService;
+import org.chintanpatel.springbootmanytoone.employee.EmployeeRepository;
+import org.chintanpatel.springbootmanytoone.employee.EmployeeService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+class InvocationMetricsTest {
+
+    @Autowired
+    private WebApplicationContext context;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Autowired
+    private DepartmentService departmentService;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    private long count(String name, String... tags) {
+        Timer timer = meterRegistry.find(name).tags(tags).timer();
+        return timer == null ? 0 : timer.count();
+    }
+
+    @Test
+    @DisplayName("service calls are timed with class, method, outcome and result size tags")
+    void serviceCallsAreTimed() {
+        String[] tags = {"class", "EmployeeServiceImpl", "method", "getAllEmployeeList", "outcome", "SUCCESS"};
+        long before = count("app.service.invocations", tags);
+        employeeService.getAllEmployeeList();
+        assertThat(count("app.service.invocations", tags)).isEqualTo(before + 1);
+        assertThat(meterRegistry.find("app.service.invocations").tags(tags).timer().getId().getTag("result.size")).isNotNull();
+    }
+
+    @Test
+    @DisplayName("repository queries are timed under the repository interface with a bucketed result size")
+    void repositoryQueriesAreTimed() {
+        employeeRepository.findByIdIn(List.of(-1L));
+        assertThat(count("app.repository.invocations",
+                "class", "EmployeeRepository", "method", "findByIdIn", "outcome", "SUCCESS", "result.size", "0")).isPositive();
+    }
+
+    @Test
+    @DisplayName("failed calls are tagged with the outcome and exception")
+    void failedCallsAreTagged() {
+        Department missing = new Department();
+        missing.setId(-1L);
+        missing.setVersion(0L);
+        missing.setDepartmentName("Missing");
+        assertThatThrownBy(() -> departmentService.updateDepartment(missing))
+                .isInstanceOf(ObjectOptimisticLockingFailureException.class);
+        assertThat(count("app.service.invocations", "class", "DepartmentServiceImpl", "method", "updateDepartment",
+                "outcome", "ERROR", "exception", "ObjectOptimisticLockingFailureException")).isPositive();
+    }
+
+    @Test
+    @DisplayName("Hibernate statistics and the Hikari pool are exposed as meters")
+    void hibernateAndHikariMetersAreRegistered() {
+        employeeService.getAllEmployeeList();
+        assertThat(meterRegistry.find("hibernate.statements").meter()).isNotNull();
+        assertThat(meterRegistry.find("hibernate.entities.loads").meter()).isNotNull();
+        assertThat(meterRegistry.find("hibernate.sessions.open").meter()).isNotNull();
+        assertThat(meterRegistry.find("hikaricp.connections.active").meter()).isNotNull();
+    }
+
+    @Test
+    @DisplayName("result sizes are bucketed")
+    void resultSizeBuckets() {
+        assertThat(InvocationMetricsInterceptor.resultSize(List.of())).isEqualTo("0");
+        assertThat(InvocationMetricsInterceptor.resultSize(List.of(1, 2, 3))).isEqualTo("2-10");
+        assertThat(InvocationMetricsInterceptor.resultSize(Optional.of(1))).isEqualTo("1");
+        assertThat(InvocationMetricsInterceptor.resultSize(42)).isEqualTo("none");
+    }
+
+    @Test
+    @DisplayName("the Prometheus scrape endpoint publishes the invocation timers")
+    void prometheusEndpointPublishesTimers() throws Exception {
+        employeeService.getAllEmployeeList();
+        MockMvc mockMvc = MockMvcBuilders.webAppContextSetup(context).build();
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("app_service_invocations_seconds_count{class=\"EmployeeServiceImpl\"")))
+                .andExpect(content().string(containsString("hikaricp_connections_active")));
+    }
+}
@@ -0,0 +1,15 @@
+package org.chintanpatel.springbootmanytoone;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LikePatternsTest {
+
+    @Test
+    void contains_escapesWildcards() {
+        assertThat(LikePatterns.contains("john")).isEqualTo("%john%");
+        assertThat(LikePatterns.contains("_")).isEqualTo("%!_%");
+        assertThat(LikePatterns.contains("50%!")).isEqualTo("%50!%!!%");
+    }
+}
@@ -0,0 +1,82 @@
+package org.chintanpatel.springbootmanytoone;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.templateresolver.AbstractConfigurableTemplateResolver;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("prod")
+class ProductionProfileTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private SpringTemplateEngine templateEngine;
+
+    private HttpResponse<byte[]> get(String path) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .header("Accept-Encoding", "gzip")
+                .build();
+        return HttpClient.newHttpClient().send(request, HttpResponse.BodyHandlers.ofByteArray());
+    }
+
+    private String html(HttpResponse<byte[]> response) throws IOException {
+        if (response.headers().firstValue("Content-Encoding").isEmpty()) {
+            return new String(response.body(), StandardCharsets.UTF_8);
+        }
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(response.body()))) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    @Test
+    @DisplayName("templates are served from the template cache")
+    void templatesAreCached() {
+        assertThat(templateEngine.getTemplateResolvers())
+                .allSatisfy(resolver -> assertThat(((AbstractConfigurableTemplateResolver) resolver).isCacheable()).isTrue());
+    }
+
+    @Test
+    @DisplayName("list pages are gzip compressed and still render the shared fragments")
+    void listPagesAreCompressed() throws Exception {
+        HttpResponse<byte[]> response = get("/employees");
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(response.headers().firstValue("Content-Encoding")).hasValue("gzip");
+        assertThat(html(response))
+                .contains("<title>Employees</title>")
+                .contains("name=\"employeeName\"", "placeholder=\"Search Department Name\"", "Search By Department");
+    }
+
+    @Test
+    @DisplayName("responses below the size threshold are sent uncompressed")
+    void smallResponsesAreNotCompressed() throws Exception {
+        HttpResponse<byte[]> response = get("/actuator/health");
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(response.headers().firstValue("Content-Encoding")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("the form pages render their head and alert fragments")
+    void formPagesRender() throws Exception {
+        assertThat(html(get("/departments/create"))).contains("<title>Add Department</title>");
+        assertThat(html(get("/employees/import"))).contains("<title>Import Employees</title>");
+        assertThat(html(get("/"))).contains("<title>Home</title>");
+    }
+}
@@ -0,0 +1,77 @@
+package org.chintanpatel.springbootmanytoone;
+
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.MigrationInfo;
+import org.flywaydb.core.api.MigrationState;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// The context only starts when Hibernate's validate step finds every mapped table, column and sequence in the
+// schema the migrations built, so booting it is the mapping check; the tests below pin down the migrated schema.
+
+@SpringBootTest
+class SchemaMigrationTest {
+
+    @Autowired
+    private Flyway flyway;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${spring.jpa.properties.hibernate.hbm2ddl.auto}")
+    private String schemaAction;
+
+    private List<String> indexes(String table) {
+        return jdbcTemplate.queryForList("select index_name from information_schema.indexes where table_name = ?", String.class, table);
+    }
+
+    @Test
+    @DisplayName("Hibernate validates the mapping instead of changing the schema")
+    void hibernateOnlyValidates() {
+        assertThat(schemaAction).isEqualTo("validate");
+    }
+
+    @Test
+    @DisplayName("every migration for the embedded database is applied and none is pending")
+    void migrationsAreApplied() {
+        assertThat(flyway.info().pending()).isEmpty();
+        assertThat(flyway.info().applied())
+                .extracting(MigrationInfo::getState)
+                .containsOnly(MigrationState.SUCCESS);
+        assertThat(flyway.info().current().getVersion().getVersion()).isEqualTo("4");
+    }
+
+    @Test
+    @DisplayName("an existing schema without migration history is not baselined unless asked to")
+    void baselineIsOptIn() {
+        assertThat(flyway.getConfiguration().isBaselineOnMigrate()).isFalse();
+    }
+
+    @Test
+    @DisplayName("the employee foreign key and the unique lookup columns are indexed")
+    void lookupColumnsAreIndexed() {
+        assertThat(indexes("employee")).contains("employee_department_id_idx");
+        assertThat(jdbcTemplate.queryForList(
+                "select column_name from information_schema.index_columns where table_name = 'employee' and is_unique",
+                String.class)).contains("employee_id", "email", "user_name");
+        assertThat(jdbcTemplate.queryForList(
+                "select column_name from information_schema.index_columns where table_name = 'department' and is_unique",
+                String.class)).contains("department_id", "department_name");
+    }
+
+    @Test
+    @DisplayName("deleting a department cascades to its employees in the database")
+    void departmentForeignKeyCascades() {
+        assertThat(jdbcTemplate.queryForObject(
+                "select delete_rule from information_schema.referential_constraints where constraint_name = 'employee_department_id_fkey'",
+                String.class)).isEqualTo("CASCADE");
+    }
+}
@@ -0,0 +1,59 @@
+package org.chintanpatel.springbootmanytoone;
+
+import org.assertj.core.api.AbstractAssert;
+import org.junit.jupiter.api.function.Executable;
+
+import java.util.Map;
+import java.util.stream.Collectors;
+
+// AssertJ assertions over the statements a block of test code executes, e.g.
+// assertThatStatements(() -> mockMvc.perform(get("/employees"))).isAtMost(1).hasNoRepeatedStatements();
+
+public class SqlStatementAssert extends AbstractAssert<SqlStatementAssert, SqlStatementRecorder.Recording> {
+
+    private SqlStatementAssert(SqlStatementRecorder.Recording actual) {
+        super(actual, SqlStatementAssert.class);
+    }
+
+    public static SqlStatementAssert assertThatStatements(Executable action) {
+        try (SqlStatementRecorder.Recording recording = SqlStatementRecorder.start()) {
+            action.execute();
+            return new SqlStatementAssert(recording);
+        } catch (RuntimeException | Error ex) {
+            throw ex;
+        } catch (Throwable ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    public SqlStatementAssert hasCount(int expected) {
+        if (actual.count() != expected) {
+            failWithMessage("Expected %d statements but %d were executed:%n%s", expected, actual.count(), listing());
+        }
+        return this;
+    }
+
+    public SqlStatementAssert isAtMost(int max) {
+        if (actual.count() > max) {
+            failWithMessage("Expected at most %d statements but %d were executed:%n%s", max, actual.count(), listing());
+        }
+        return this;
+    }
+
+    // Identical SQL executed more than once in the block, typically a lazy association loaded row by row
+
+    public SqlStatementAssert hasNoRepeatedStatements() {
+        Map<String, Integer> repeated = actual.repeated(2);
+        if (!repeated.isEmpty()) {
+            failWithMessage("Expected no repeated statements but found:%n%s", repeated.entrySet().stream()
+                    .map(entry -> entry.getValue() + " x " + entry.getKey())
+                    .collect(Collectors.joining(System.lineSeparator())));
+        }
+        return this;
+    }
+
+    private String listing() {
+        String listing = String.join(System.lineSeparator(), actual.statements());
+        return actual.dropped() == 0 ? listing : listing + System.lineSeparator() + "... and " + actual.dropped() + " more";
+    }
+}
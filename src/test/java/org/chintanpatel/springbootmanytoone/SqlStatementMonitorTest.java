@@ -0,0 +1,137 @@
+package org.chintanpatel.springbootmanytoone;
+
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.chintanpatel.springbootmanytoone.department.DepartmentRepository;
+import org.chintanpatel.springbootmanytoone.employee.EmployeeRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.system.CapturedOutput;
+import org.springframework.boot.test.system.OutputCaptureExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import javax.sql.DataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.chintanpatel.springbootmanytoone.SqlStatementAssert.assertThatStatements;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@ExtendWith(OutputCaptureExtension.class)
+class SqlStatementMonitorTest {
+
+    @Autowired
+    private WebApplicationContext context;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private DepartmentRepository departmentRepository;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private SqlStatementMonitorFilter filter;
+
+    private Long departmentId() {
+        return departmentRepository.save(TestFixtures.department(TestFixtures.unique("Monitor"))).getId();
+    }
+
+    @Test
+    @DisplayName("the pool is wrapped so every statement is recorded")
+    void dataSourceIsMonitored() {
+        assertThat(dataSource).isInstanceOf(SqlMonitoringDataSource.class);
+        assertThatStatements(() -> employeeRepository.findAll()).hasCount(1);
+    }
+
+    @Test
+    @DisplayName("the employee list page issues one statement with no repeats")
+    void employeeListIssuesOneStatement() {
+        MockMvc mockMvc = MockMvcBuilders.webAppContextSetup(context).build();
+        assertThatStatements(() -> mockMvc.perform(get("/employees")).andExpect(status().isOk()))
+                .isAtMost(1)
+                .hasNoRepeatedStatements();
+    }
+
+    @Test
+    @DisplayName("the same select repeated row by row fails the N+1 assertion")
+    void repeatedStatementsFailAssertion() {
+        Long id = departmentId();
+        assertThatThrownBy(() -> assertThatStatements(() -> {
+            for (int i = 0; i < 3; i++) {
+                departmentRepository.findById(id);
+            }
+        }).hasNoRepeatedStatements())
+                .isInstanceOf(AssertionError.class)
+                .hasMessageContaining("3 x select");
+        assertThatThrownBy(() -> assertThatStatements(() -> departmentRepository.findById(id)).hasCount(0))
+                .hasMessageContaining("Expected 0 statements but 1 were executed");
+    }
+
+    @Test
+    @DisplayName("the request filter warns about probable N+1 selects")
+    void filterWarnsAboutRepeatedStatements(CapturedOutput output) throws Exception {
+        Long id = departmentId();
+        HttpServlet servlet = new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest request, HttpServletResponse response) {
+                for (int i = 0; i < 3; i++) {
+                    departmentRepository.findById(id);
+                }
+            }
+        };
+        filter.doFilter(new MockHttpServletRequest("GET", "/probe"), new MockHttpServletResponse(), new MockFilterChain(servlet));
+        assertThat(output).contains("Probable N+1 on GET /probe: 3 executions of select");
+    }
+
+    @Test
+    @DisplayName("slow statements are logged without literal values")
+    void slowStatementsAreLoggedRedacted(CapturedOutput output) {
+        new JdbcTemplate(new SqlMonitoringDataSource(dataSource, 0))
+                .queryForObject("select count(*) from department where department_name <> 'top-secret'", Long.class);
+        assertThat(output).contains("Slow statement took").contains("department_name <> '?'").doesNotContain("top-secret");
+    }
+
+    @Test
+    @DisplayName("string literals are masked, doubled quotes included")
+    void redactMasksStringLiterals() {
+        assertThat(SqlMonitoringDataSource.redact("select * from employee where email = 'a@b.com' and last_name = 'O''Brien' and id = ?"))
+                .isEqualTo("select * from employee where email = '?' and last_name = '?' and id = ?");
+    }
+
+    @Test
+    @DisplayName("numeric literals are masked, digits in identifiers are not")
+    void redactMasksNumericLiterals() {
+        assertThat(SqlMonitoringDataSource.redact("select t1_0.employee_id from employee t1_0 where t1_0.salary > 1000.50 and t1_0.department_id in (7, 42) and t1_0.version = 1e3 limit 50"))
+                .isEqualTo("select t1_0.employee_id from employee t1_0 where t1_0.salary > ? and t1_0.department_id in (?, ?) and t1_0.version = ? limit ?");
+        assertThat(SqlMonitoringDataSource.redact("select * from employee where mobile_number = '9999999999'"))
+                .isEqualTo("select * from employee where mobile_number = '?'");
+    }
+
+    @Test
+    @DisplayName("a recording keeps a bounded number of statements and counts the rest")
+    void recordingCapsCapturedStatements() {
+        try (SqlStatementRecorder.Recording recording = SqlStatementRecorder.start()) {
+            for (int i = 0; i < SqlStatementRecorder.MAX_CAPTURED_STATEMENTS + 5; i++) {
+                SqlStatementRecorder.record("select " + i);
+            }
+            assertThat(recording.statements()).hasSize(SqlStatementRecorder.MAX_CAPTURED_STATEMENTS);
+            assertThat(recording.dropped()).isEqualTo(5);
+            assertThat(recording.count()).isEqualTo(SqlStatementRecorder.MAX_CAPTURED_STATEMENTS + 5);
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package org.chintanpatel.springbootmanytoone;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+// Starts the packaged application in separate JVMs and reports the median time from launch to the first answered
+// request (GET /) and the resident set size at that point, for:
+//   plain               java -jar style launch of the uber jar
+//   aot                 the extracted jar with Spring AOT initialization (-Dspring.aot.enabled=true)
+//   aot+archive         the same with a class-data archive recorded by a training run (AOT cache on JDK 25+, AppCDS before)
+// Each JVM runs against its own in-memory H2 database. Off by default; build the jars first, then run:
+//   ./mvnw -Pstartup package -DskipTests
+//   ./mvnw test -Dtest=StartupTimeTest -Dstartup=true            (optional: -Dstartup.runs=5)
+
+@EnabledIfSystemProperty(named = "startup", matches = "true")
+class StartupTimeTest {
+
+    private static final int RUNS = Integer.getInteger("startup.runs", 3);
+    private static final Duration START_TIMEOUT = Duration.ofMinutes(2);
+    private static final Path TARGET = Path.of("target");
+    private static final Path EXTRACTED_JAR = TARGET.resolve("application").resolve("app.jar");
+    private static final Path REPORT_DIR = TARGET.resolve("startup");
+    private static final String MAIN_CLASS = SpringBootManyToOneApplication.class.getName();
+    private static final String JAR_LAUNCHER = "org.springframework.boot.loader.launch.JarLauncher";
+
+    private record Variant(String name, List<String> jvmArgs, String classpath, String mainClass) {
+    }
+
+    private record Sample(long millisToFirstRequest, long rssKilobytes) {
+    }
+
+    @Test
+    void compareStartup() throws Exception {
+        assumeTrue(Files.exists(EXTRACTED_JAR), "Build the jars first with ./mvnw -Pstartup package -DskipTests");
+        Files.createDirectories(REPORT_DIR);
+        String h2 = Path.of(org.h2.Driver.class.getProtectionDomain().getCodeSource().getLocation().toURI()).toString();
+        String uberJar = uberJar().toString();
+        String extracted = EXTRACTED_JAR.toString() + File.pathSeparator + h2;
+
+        // Logic to record the archive with the same class path the measured runs use; the JVM rejects it otherwise
+        boolean aotCache = Runtime.version().feature() >= 25;
+        Path archive = REPORT_DIR.resolve(aotCache ? "app.aot" : "app.jsa");
+        Files.deleteIfExists(archive);
+        List<String> training = new ArrayList<>(List.of((aotCache ? "-XX:AOTCacheOutput=" : "-XX:ArchiveClassesAtExit=") + archive,
+                "-Dspring.aot.enabled=true", "-Dspring.context.exit=onRefresh"));
+        Process trainingRun = launch(new Variant("training", training, extracted, MAIN_CLASS), freePort());
+        assertThat(trainingRun.waitFor()).as("training run exit code, see target/startup/training.log").isZero();
+        assertThat(archive).exists();
+
+        List<Variant> variants = List.of(
+                new Variant("plain", List.of(), uberJar + File.pathSeparator + h2, JAR_LAUNCHER),
+                new Variant("aot", List.of("-Dspring.aot.enabled=true"), extracted, MAIN_CLASS),
+                new Variant("aot+archive", List.of("-Dspring.aot.enabled=true",
+                        (aotCache ? "-XX:AOTCache=" : "-XX:SharedArchiveFile=") + archive, "-Xshare:on"), extracted, MAIN_CLASS));
+        for (Variant variant : variants) {
+            List<Sample> samples = new ArrayList<>();
+            for (int i = 0; i < RUNS; i++) {
+                samples.add(measure(variant));
+            }
+            System.out.printf("%-12s runs=%d  first request=%6d ms  rss=%7d KB  (medians)%n", variant.name(), RUNS,
+                    median(samples.stream().map(Sample::millisToFirstRequest).toList()),
+                    median(samples.stream().map(Sample::rssKilobytes).toList()));
+        }
+    }
+
+    private Sample measure(Variant variant) throws Exception {
+        int port = freePort();
+        long start = System.nanoTime();
+        Process process = launch(variant, port);
+        try {
+            awaitFirstRequest(process, port, variant);
+            long millis = (System.nanoTime() - start) / 1_000_000;
+            return new Sample(millis, rssKilobytes(process));
+        } finally {
+            process.destroy();
+            process.waitFor();
+        }
+    }
+
+    private Process launch(Variant variant, int port) throws IOException {
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(variant.jvmArgs());
+        command.addAll(List.of("-cp", variant.classpath(), variant.mainClass(),
+                "--server.port=" + port,
+                "--spring.main.banner-mode=off",
+                "--spring.datasource.url=jdbc:h2:mem:startup;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"));
+        return new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(REPORT_DIR.resolve(variant.name() + ".log").toFile())
+                .start();
+    }
+
+    private void awaitFirstRequest(Process process, int port, Variant variant) throws Exception {
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/")).build();
+        long deadline = System.nanoTime() + START_TIMEOUT.toNanos();
+        while (System.nanoTime() < deadline) {
+            assertThat(process.isAlive()).as("%s exited early, see target/startup/%s.log", variant.name(), variant.name()).isTrue();
+            try {
+                if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return;
+                }
+            } catch (ConnectException ex) {
+                // Not listening yet
+            }
+            Thread.sleep(10);
+        }
+        throw new AssertionError(variant.name() + " did not answer within " + START_TIMEOUT);
+    }
+
+    // VmRSS of the child JVM; reported as 0 where /proc is not available
+
+    private long rssKilobytes(Process process) throws IOException {
+        Path status = Path.of("/proc", Long.toString(process.pid()), "status");
+        if (!Files.exists(status)) {
+            return 0;
+        }
+        try (Stream<String> lines = Files.lines(status)) {
+            return lines.filter(line -> line.startsWith("VmRSS:"))
+                    .map(line -> Long.parseLong(line.replaceAll("\\D", "")))
+                    .findFirst().orElse(0L);
+        }
+    }
+
+    private Path uberJar() throws IOException {
+        try (Stream<Path> jars = Files.list(TARGET)) {
+            return jars.filter(jar -> jar.getFileName().toString().endsWith(".jar") && !jar.getFileName().toString().endsWith("-plain.jar"))
+                    .findFirst().orElseThrow(() -> new IllegalStateException("No jar in target/"));
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static long median(List<Long> values) {
+        return values.stream().sorted().toList().get(values.size() / 2);
+    }
+}
@@ -0,0 +1,81 @@
+package org.chintanpatel.springbootmanytoone;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = "server.http2.enabled=true")
+class StaticResourceTest {
+
+    private static final Pattern VERSIONED_CSS = Pattern.compile("/css/bootstrap\\.min-[0-9a-f]{32}\\.css");
+
+    @LocalServerPort
+    private int port;
+
+    private HttpResponse<String> get(HttpClient.Version version, String path, String... headers) throws IOException, InterruptedException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path));
+        if (headers.length > 0) {
+            request.headers(headers);
+        }
+        return HttpClient.newBuilder().version(version).build().send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private String versionedStylesheet() throws IOException, InterruptedException {
+        Matcher matcher = VERSIONED_CSS.matcher(get(HttpClient.Version.HTTP_1_1, "/").body());
+        assertThat(matcher.find()).as("page links a content-hashed stylesheet").isTrue();
+        return matcher.group();
+    }
+
+    @Test
+    @DisplayName("pages link content-hashed assets that are cached as immutable")
+    void versionedAssetsAreImmutable() throws Exception {
+        HttpResponse<String> response = get(HttpClient.Version.HTTP_1_1, versionedStylesheet());
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(response.headers().firstValue("Cache-Control")).hasValue("max-age=31536000, public, immutable");
+        assertThat(response.headers().firstValue("Content-Encoding")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("unversioned URLs and source maps must be revalidated")
+    void unversionedAssetsAreRevalidated() throws Exception {
+        for (String path : new String[]{"/css/bootstrap.min.css", "/css/bootstrap.min.css.map", "/js/bootstrap.bundle.min.js"}) {
+            HttpResponse<String> response = get(HttpClient.Version.HTTP_1_1, path);
+            assertThat(response.statusCode()).as(path).isEqualTo(200);
+            assertThat(response.headers().firstValue("Cache-Control")).as(path).hasValue("no-cache");
+        }
+    }
+
+    @Test
+    @DisplayName("the precompressed copy is served to clients that accept gzip")
+    void precompressedVariantIsServed() throws Exception {
+        HttpResponse<String> response = get(HttpClient.Version.HTTP_1_1, versionedStylesheet(), "Accept-Encoding", "gzip");
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(response.headers().firstValue("Content-Encoding")).hasValue("gzip");
+        assertThat(response.headers().allValues("Vary")).anySatisfy(vary -> assertThat(vary).contains("Accept-Encoding"));
+    }
+
+    @Test
+    @DisplayName("a stale hash is not served")
+    void unknownVersionIsNotFound() throws Exception {
+        assertThat(get(HttpClient.Version.HTTP_1_1, "/css/bootstrap.min-00000000000000000000000000000000.css").statusCode()).isEqualTo(404);
+    }
+
+    @Test
+    @DisplayName("with server.http2.enabled the server upgrades cleartext connections to HTTP/2")
+    void http2IsNegotiated() throws Exception {
+        HttpResponse<String> response = get(HttpClient.Version.HTTP_2, "/");
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(response.version()).isEqualTo(HttpClient.Version.HTTP_2);
+    }
+}
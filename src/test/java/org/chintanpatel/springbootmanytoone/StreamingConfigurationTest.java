@@ -0,0 +1,67 @@
+package org.chintanpatel.springbootmanytoone;
+
+import org.chintanpatel.springbootmanytoone.department.DepartmentRemover;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.context.WebApplicationContext;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.CountDownLatch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {"stream.executor.max-concurrent=1", "stream.executor.queue-capacity=0"})
+class StreamingConfigurationTest {
+
+    @Autowired
+    private WebApplicationContext context;
+
+    @Autowired
+    private RequestMappingHandlerAdapter handlerAdapter;
+
+    @Autowired
+    private DepartmentRemover departmentRemover;
+
+    @LocalServerPort
+    private int port;
+
+    private AsyncTaskExecutor streamingTaskExecutor() {
+        return (AsyncTaskExecutor) ReflectionTestUtils.getField(context.getBean(StreamingConfiguration.class), "streamingTaskExecutor");
+    }
+
+    @Test
+    void streamsGetTheirOwnExecutorAndBackgroundJobsKeepTheApplicationOne() {
+        assertThat(ReflectionTestUtils.getField(handlerAdapter, "taskExecutor")).isSameAs(streamingTaskExecutor());
+        assertThat(ReflectionTestUtils.getField(departmentRemover, "taskExecutor")).isSameAs(context.getBean("applicationTaskExecutor"));
+    }
+
+    @Test
+    void streamWithoutRoomOnTheExecutorIsAnswered503() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        streamingTaskExecutor().execute(() -> {
+            try {
+                release.await();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        try {
+            HttpResponse<String> response = HttpClient.newHttpClient().send(
+                    HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/stream/departments")).build(),
+                    HttpResponse.BodyHandlers.ofString());
+            assertThat(response.statusCode()).isEqualTo(503);
+            assertThat(response.headers().firstValue(HttpHeaders.RETRY_AFTER)).isPresent();
+        } finally {
+            release.countDown();
+        }
+    }
+}
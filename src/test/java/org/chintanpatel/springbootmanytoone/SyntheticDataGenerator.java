@@ -0,0 +1,105 @@
+package org.chintanpatel.springbootmanytoone;
+
+import org.chintanpatel.springbootmanytoone.department.Department;
+import org.chintanpatel.springbootmanytoone.department.DepartmentService;
+import org.chintanpatel.springbootmanytoone.employee.Employee;
+import org.chintanpatel.springbootmanytoone.employee.EmployeeRepository;
+import org.chintanpatel.springbootmanytoone.employee.InMemoryEmployeeSearchEngine;
+import org.springframework.context.ApplicationContext;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+// Deterministic departments and employees for load tests: row n is derived from (seed, n) only,
+// so the same seed always produces the same data set, and rows past the seeded range are new unique employees.
+
+public final class SyntheticDataGenerator {
+
+    static final List<String> FIRST_NAMES = List.of("Maria", "James", "Priya", "Chen", "Olga", "Ahmed", "Lucia", "Kenji",
+            "Fatima", "Noah", "Ingrid", "Mateo", "Aisha", "Liam", "Yuki", "Omar");
+
+    static final List<String> LAST_NAMES = List.of("Garcia", "Smith", "Patel", "Wang", "Ivanova", "Hassan", "Rossi", "Tanaka",
+            "Khan", "Brown", "Larsen", "Silva", "Okafor", "Murphy", "Sato", "Haddad");
+
+    private static final List<String> STREETS = List.of("Main Street", "Oak Avenue", "Station Road", "Park Lane", "High Street");
+
+    private final long seed;
+
+    public SyntheticDataGenerator(long seed) {
+        this.seed = seed;
+    }
+
+    public String departmentName(int index) {
+        return String.format("Department-%03d", index);
+    }
+
+    public Employee employee(long index, Department department) {
+        SplittableRandom random = new SplittableRandom(seed * 1_000_003L + index);
+        String firstName = FIRST_NAMES.get(random.nextInt(FIRST_NAMES.size()));
+        String lastName = LAST_NAMES.get(random.nextInt(LAST_NAMES.size()));
+        Employee e = new Employee();
+        e.setFirstName(firstName);
+        e.setMiddleName(String.valueOf((char) ('A' + random.nextInt(26))));
+        e.setLastName(lastName);
+        e.setAddress((1 + random.nextInt(999)) + " " + STREETS.get(random.nextInt(STREETS.size())));
+        e.setEmail((firstName + "." + lastName + "." + index + "@example.com").toLowerCase());
+        e.setMobileNumber(String.format("9%09d", random.nextInt(1_000_000_000)));
+        e.setHiringDate(LocalDate.of(2010, 1, 1).plusDays(random.nextInt(365 * 15)));
+        e.setSalary(BigDecimal.valueOf(30_000 + random.nextInt(120_000 * 100) / 100.0).setScale(2, RoundingMode.HALF_UP));
+        e.setUserName((firstName + "." + lastName + index).toLowerCase());
+        e.setPassword("password" + index);
+        e.setDepartment(department);
+        return e;
+    }
+
+    // Form fields as the employee form posts them, for driving /employees/insertOrUpdateEmployee
+
+    public Map<String, String> employeeForm(long index, Department department) {
+        Employee e = employee(index, department);
+        Map<String, String> form = new LinkedHashMap<>();
+        form.put("firstName", e.getFirstName());
+        form.put("middleName", e.getMiddleName());
+        form.put("lastName", e.getLastName());
+        form.put("address", e.getAddress());
+        form.put("email", e.getEmail());
+        form.put("mobileNumber", e.getMobileNumber());
+        form.put("hiringDate", e.getHiringDate().toString());
+        form.put("salary", e.getSalary().toPlainString());
+        form.put("userName", e.getUserName());
+        form.put("password", e.getPassword());
+        form.put("department", String.valueOf(department.getId()));
+        return form;
+    }
+
+    // Logic to store the data set in a running application; employees go in with batched inserts, 1000 per save
+
+    public List<Department> seed(ApplicationContext context, int departmentCount, int employeeCount) {
+        DepartmentService departmentService = context.getBean(DepartmentService.class);
+        List<Department> departments = new ArrayList<>();
+        for (int i = 0; i < departmentCount; i++) {
+            Department department = new Department();
+            department.setDepartmentName(departmentName(i));
+            departmentService.addDepartment(department);
+            departments.add(department);
+        }
+        EmployeeRepository employeeRepository = context.getBean(EmployeeRepository.class);
+        List<Employee> chunk = new ArrayList<>();
+        for (int i = 0; i < employeeCount; i++) {
+            chunk.add(employee(i, departments.get(i % departmentCount)));
+            if (chunk.size() == 1000) {
+                employeeRepository.saveAll(chunk);
+                chunk.clear();
+            }
+        }
+        employeeRepository.saveAll(chunk);
+        // The in-memory name index is built at startup, so rebuild it over the seeded rows
+        context.getBeansOfType(InMemoryEmployeeSearchEngine.class).values().forEach(InMemoryEmployeeSearchEngine::rebuild);
+        return departments;
+    }
+}
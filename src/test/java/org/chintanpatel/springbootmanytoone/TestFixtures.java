@@ -0,0 +1,69 @@
+package org.chintanpatel.springbootmanytoone;
+
+import org.chintanpatel.springbootmanytoone.department.Department;
+import org.chintanpatel.springbootmanytoone.department.DepartmentRepository;
+import org.chintanpatel.springbootmanytoone.employee.Employee;
+import org.chintanpatel.springbootmanytoone.employee.EmployeeRepository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Departments and employees for integration tests. The test contexts share one embedded database,
+// so names, emails and user names are made unique per JVM with unique(prefix).
+// Large or realistic data sets come from SyntheticDataGenerator instead.
+
+public final class TestFixtures {
+
+    private static final AtomicLong SEQUENCE = new AtomicLong();
+
+    private TestFixtures() {
+    }
+
+    public static String unique(String prefix) {
+        return prefix + "-" + SEQUENCE.incrementAndGet();
+    }
+
+    // Unsaved department with exactly this name
+
+    public static Department department(String name) {
+        Department department = new Department();
+        department.setDepartmentName(name);
+        return department;
+    }
+
+    // Unsaved, valid employee whose email and user name are derived from key
+
+    public static Employee employee(String key, Department department) {
+        Employee employee = new Employee();
+        employee.setFirstName("John");
+        employee.setMiddleName("Q");
+        employee.setLastName("Doe");
+        employee.setAddress("123 Street");
+        employee.setEmail(key + "@acme.com");
+        employee.setMobileNumber("9999999999");
+        employee.setHiringDate(LocalDate.of(2024, 1, 1));
+        employee.setSalary(new BigDecimal("1000.00"));
+        employee.setUserName(key);
+        employee.setPassword("password8");
+        employee.setDepartment(department);
+        return employee;
+    }
+
+    public static List<Employee> employees(String prefix, Department department, int count) {
+        List<Employee> employees = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            employees.add(employee(unique(prefix), department));
+        }
+        return employees;
+    }
+
+    // Logic to empty both tables for tests that count over everything stored
+
+    public static void deleteAll(EmployeeRepository employeeRepository, DepartmentRepository departmentRepository) {
+        employeeRepository.deleteAllInBatch();
+        departmentRepository.deleteAllInBatch();
+    }
+}
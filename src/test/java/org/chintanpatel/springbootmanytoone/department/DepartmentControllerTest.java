@@ -12,9 +12,14 @@ import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.validation.beanvalidation.LocalValidatorFactoryBean;
 
 import java.util.List;
+import java.util.Map;
 
 import static org.hamcrest.Matchers.containsString;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
@@ -28,9 +33,12 @@ class DepartmentControllerTest {
     @Mock
     private DepartmentService departmentService;
 
+    @Mock
+    private DepartmentRemover departmentRemover;
+
     @BeforeEach
     void setup() {
-        DepartmentController controller = new DepartmentController(departmentService);
+        DepartmentController controller = new DepartmentController(departmentService, departmentRemover);
         LocalValidatorFactoryBean validator = new LocalValidatorFactoryBean();
         validator.afterPropertiesSet();
         this.mockMvc = MockMvcBuilders.standaloneSetup(controller)
@@ -50,9 +58,11 @@ class DepartmentControllerTest {
     void listDepartments() throws Exception {
         given(departmentService.getAllDepartmentList()).willReturn(List.of(dep(1, "IT")));
 
+        given(departmentService.getDepartmentSummaries()).willReturn(Map.of());
+
         mockMvc.perform(get("/departments"))
                 .andExpect(status().isOk())
-                .andExpect(model().attributeExists("departmentList"));
+                .andExpect(model().attributeExists("departmentList", "departmentSummaries"));
     }
 
     @Test
@@ -77,7 +87,7 @@ class DepartmentControllerTest {
     @Test
     @DisplayName("POST insert - duplicate name redirects back with error")
     void insert_duplicateName() throws Exception {
-        given(departmentService.isDepartmentExist("IT")).willReturn(true);
+        willThrow(new DepartmentAlreadyExistsException(null)).given(departmentService).addDepartment(any(Department.class));
 
         mockMvc.perform(post("/departments/insertOrUpdateDepartment")
                         .contentType(MediaType.APPLICATION_FORM_URLENCODED)
@@ -91,8 +101,6 @@ class DepartmentControllerTest {
     @Test
     @DisplayName("POST insert - success redirects to list")
     void insert_success() throws Exception {
-        given(departmentService.isDepartmentExist("IT")).willReturn(false);
-
         mockMvc.perform(post("/departments/insertOrUpdateDepartment")
                         .contentType(MediaType.APPLICATION_FORM_URLENCODED)
                         .param("departmentName", "IT")
@@ -102,6 +110,7 @@ class DepartmentControllerTest {
                 .andExpect(flash().attribute("successMessage", containsString("Department added successfully")));
 
         verify(departmentService).addDepartment(org.mockito.ArgumentMatchers.any(Department.class));
+        verify(departmentService, never()).isDepartmentExist(anyString());
     }
 
     @Test
@@ -119,6 +128,21 @@ class DepartmentControllerTest {
         verify(departmentService).updateDepartment(org.mockito.ArgumentMatchers.any(Department.class));
     }
 
+    @Test
+    @DisplayName("POST update - duplicate name redirects back to the edit form")
+    void update_duplicateName() throws Exception {
+        willThrow(new DepartmentAlreadyExistsException(null)).given(departmentService).updateDepartment(any(Department.class));
+
+        mockMvc.perform(post("/departments/insertOrUpdateDepartment")
+                        .contentType(MediaType.APPLICATION_FORM_URLENCODED)
+                        .param("id", "5")
+                        .param("departmentName", "HR")
+                )
+                .andExpect(status().is3xxRedirection())
+                .andExpect(redirectedUrl("/departments/manageDepartment/5"))
+                .andExpect(flash().attribute("errorMessage", containsString("Department already exists")));
+    }
+
     @Test
     @DisplayName("GET manageDepartment/{id} - found loads form; not found redirects")
     void manageDepartment() throws Exception {
@@ -135,18 +159,47 @@ class DepartmentControllerTest {
     }
 
     @Test
-    @DisplayName("GET deleteDepartment/{id} - success and not found paths")
+    @DisplayName("GET deleteDepartment/{id} - deleted, moved to the background, not found and already running paths")
     void deleteDepartment() throws Exception {
-        given(departmentService.getDepartmentById(1L)).willReturn(dep(1, "IT"));
+        given(departmentRemover.deleteDepartment(1L)).willReturn(DepartmentRemovalStatus.deleted(1L));
         mockMvc.perform(get("/departments/deleteDepartment/{id}", 1))
                 .andExpect(status().is3xxRedirection())
                 .andExpect(redirectedUrl("/departments"))
                 .andExpect(flash().attribute("successMessage", containsString("deleted successfully")));
 
-        given(departmentService.getDepartmentById(2L)).willReturn(null);
+        given(departmentRemover.deleteDepartment(2L)).willReturn(null);
         mockMvc.perform(get("/departments/deleteDepartment/{id}", 2))
                 .andExpect(status().is3xxRedirection())
                 .andExpect(redirectedUrl("/departments"))
                 .andExpect(flash().attribute("errorMessage", containsString("Department not found")));
+
+        given(departmentRemover.deleteDepartment(3L))
+                .willReturn(DepartmentRemovalStatus.started(3L, DepartmentRemovalMode.DELETE_EMPLOYEES, null, 40));
+        mockMvc.perform(get("/departments/deleteDepartment/{id}", 3))
+                .andExpect(flash().attribute("successMessage", containsString("deleting 40 employees in the background")));
+
+        given(departmentRemover.deleteDepartment(4L)).willThrow(new DepartmentRemovalConflictException());
+        mockMvc.perform(get("/departments/deleteDepartment/{id}", 4))
+                .andExpect(flash().attribute("errorMessage", containsString("already being removed")));
+        verify(departmentService, never()).deleteDepartmentById(any());
+    }
+
+    @Test
+    @DisplayName("GET removeDepartment/{id} - starts the background removal, reports missing and already running")
+    void removeDepartment() throws Exception {
+        given(departmentRemover.startRemoval(1L, DepartmentRemovalMode.DELETE_EMPLOYEES, null))
+                .willReturn(DepartmentRemovalStatus.started(1L, DepartmentRemovalMode.DELETE_EMPLOYEES, null, 1200));
+        mockMvc.perform(get("/departments/removeDepartment/{id}", 1))
+                .andExpect(status().is3xxRedirection())
+                .andExpect(redirectedUrl("/departments"))
+                .andExpect(flash().attribute("successMessage", containsString("deleting 1200 employees in the background")));
+
+        given(departmentRemover.startRemoval(2L, DepartmentRemovalMode.DELETE_EMPLOYEES, null)).willReturn(null);
+        mockMvc.perform(get("/departments/removeDepartment/{id}", 2))
+                .andExpect(flash().attribute("errorMessage", containsString("Department not found")));
+
+        given(departmentRemover.startRemoval(3L, DepartmentRemovalMode.DELETE_EMPLOYEES, null)).willThrow(new DepartmentRemovalConflictException());
+        mockMvc.perform(get("/departments/removeDepartment/{id}", 3))
+                .andExpect(flash().attribute("errorMessage", containsString("already being removed")));
     }
 }
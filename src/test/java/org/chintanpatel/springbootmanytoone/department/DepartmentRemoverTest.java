@@ -0,0 +1,210 @@
+package org.chintanpatel.springbootmanytoone.department;
+
+import org.chintanpatel.springbootmanytoone.TestFixtures;
+import org.chintanpatel.springbootmanytoone.employee.EmployeeRepository;
+import org.chintanpatel.springbootmanytoone.employee.EmployeeService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.hamcrest.Matchers.endsWith;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {"department.removal.chunk-size=10", "department.removal.status-ttl=2s"})
+class DepartmentRemoverTest {
+
+    @Autowired
+    private DepartmentRemover departmentRemover;
+
+    @Autowired
+    private DepartmentService departmentService;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Autowired
+    private WebApplicationContext context;
+
+    private Department department(String name) {
+        Department d = TestFixtures.department(TestFixtures.unique(name));
+        departmentService.addDepartment(d);
+        return d;
+    }
+
+    private void employees(Department department, int count) {
+        employeeRepository.saveAll(TestFixtures.employees("remove", department, count));
+    }
+
+    private DepartmentRemovalStatus awaitFinished(Long departmentId) throws InterruptedException {
+        for (int i = 0; i < 200; i++) {
+            DepartmentRemovalStatus status = departmentRemover.getRemovalStatus(departmentId);
+            if (status.state() != DepartmentRemovalStatus.State.RUNNING) {
+                return status;
+            }
+            Thread.sleep(50);
+        }
+        throw new AssertionError("Removal of department " + departmentId + " did not finish");
+    }
+
+    @Test
+    @DisplayName("delete mode removes the employees in chunks, then the department")
+    void deleteModeRemovesEmployeesAndDepartment() throws Exception {
+        Department department = department("Remove");
+        employees(department, 25);
+
+        DepartmentRemovalStatus started = departmentRemover.startRemoval(department.getId(), DepartmentRemovalMode.DELETE_EMPLOYEES, null);
+        assertThat(started.totalEmployees()).isEqualTo(25);
+
+        DepartmentRemovalStatus finished = awaitFinished(department.getId());
+        assertThat(finished.state()).isEqualTo(DepartmentRemovalStatus.State.COMPLETED);
+        assertThat(finished.processedEmployees()).isEqualTo(25);
+        assertThat(finished.finishedAt()).isNotNull();
+        assertThat(employeeRepository.countByDepartmentId(department.getId())).isZero();
+        assertThat(departmentService.getDepartmentVersion(department.getId())).isNull();
+    }
+
+    @Test
+    @DisplayName("a finished job's status is dropped once status-ttl has passed")
+    void finishedStatusExpires() throws Exception {
+        Department department = department("Expire");
+        departmentRemover.startRemoval(department.getId(), DepartmentRemovalMode.DELETE_EMPLOYEES, null);
+        assertThat(awaitFinished(department.getId()).state()).isEqualTo(DepartmentRemovalStatus.State.COMPLETED);
+
+        for (int i = 0; i < 100 && departmentRemover.getRemovalStatus(department.getId()) != null; i++) {
+            Thread.sleep(50);
+        }
+        assertThat(departmentRemover.getRemovalStatus(department.getId())).isNull();
+    }
+
+    @Test
+    @DisplayName("reassign mode moves the employees to the target department before removing the department")
+    void reassignModeMovesEmployees() throws Exception {
+        Department department = department("Merge");
+        Department target = department("Target");
+        employees(department, 12);
+
+        departmentRemover.startRemoval(department.getId(), DepartmentRemovalMode.REASSIGN_EMPLOYEES, target.getId());
+
+        assertThat(awaitFinished(department.getId()).state()).isEqualTo(DepartmentRemovalStatus.State.COMPLETED);
+        assertThat(employeeRepository.countByDepartmentId(target.getId())).isEqualTo(12);
+        assertThat(departmentService.getDepartmentVersion(department.getId())).isNull();
+    }
+
+    @Test
+    @DisplayName("a department marked for removal is hidden from the department list and cannot be removed twice")
+    void markedDepartmentIsHidden() {
+        Department department = department("Hidden");
+        assertThat(departmentService.getAllDepartmentList()).extracting(Department::getId).contains(department.getId());
+
+        assertThat(departmentService.markDepartmentForRemoval(department.getId())).isTrue();
+        assertThat(departmentService.getAllDepartmentList()).extracting(Department::getId).doesNotContain(department.getId());
+        assertThatThrownBy(() -> departmentRemover.startRemoval(department.getId(), DepartmentRemovalMode.DELETE_EMPLOYEES, null))
+                .isInstanceOf(DepartmentRemovalConflictException.class);
+
+        departmentService.unmarkDepartmentForRemoval(department.getId());
+        assertThat(departmentService.getAllDepartmentList()).extracting(Department::getId).contains(department.getId());
+    }
+
+    @Test
+    @DisplayName("a plain delete removes an empty department at once and hands one with employees to a job")
+    void deleteDepartmentDeletesEmptyAndBackgroundsTheRest() throws Exception {
+        Department empty = department("Empty");
+        assertThat(departmentRemover.deleteDepartment(empty.getId()).state()).isEqualTo(DepartmentRemovalStatus.State.COMPLETED);
+        assertThat(departmentService.getDepartmentVersion(empty.getId())).isNull();
+        assertThat(departmentRemover.getRemovalStatus(empty.getId())).isNull();
+
+        Department staffed = department("Staffed");
+        employees(staffed, 15);
+        DepartmentRemovalStatus started = departmentRemover.deleteDepartment(staffed.getId());
+        assertThat(started.totalEmployees()).isEqualTo(15);
+        assertThat(awaitFinished(staffed.getId()).state()).isEqualTo(DepartmentRemovalStatus.State.COMPLETED);
+        assertThat(employeeRepository.countByDepartmentId(staffed.getId())).isZero();
+
+        assertThat(departmentRemover.deleteDepartment(-1L)).isNull();
+    }
+
+    @Test
+    @DisplayName("a plain delete is refused while a removal job holds the department")
+    void deleteDepartmentConflictsWithRunningRemoval() {
+        Department department = department("Busy");
+        assertThat(departmentService.markDepartmentForRemoval(department.getId())).isTrue();
+
+        assertThatThrownBy(() -> departmentRemover.deleteDepartment(department.getId()))
+                .isInstanceOf(DepartmentRemovalConflictException.class);
+        assertThat(departmentService.getDepartmentVersion(department.getId())).isNotNull();
+        departmentService.unmarkDepartmentForRemoval(department.getId());
+    }
+
+    @Test
+    @DisplayName("reassigning requires another existing department")
+    void reassignRequiresTarget() {
+        Department department = department("NoTarget");
+        assertThatThrownBy(() -> departmentRemover.startRemoval(department.getId(), DepartmentRemovalMode.REASSIGN_EMPLOYEES, department.getId()))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(departmentService.getAllDepartmentList()).extracting(Department::getId).contains(department.getId());
+    }
+
+    @Test
+    @DisplayName("the REST API starts a removal with 202 and serves its status")
+    void restApiStartsRemovalAndReportsStatus() throws Exception {
+        MockMvc mockMvc = MockMvcBuilders.webAppContextSetup(context).build();
+        Department department = department("Rest");
+        employees(department, 3);
+
+        mockMvc.perform(post("/api/departments/{id}/removal", department.getId()))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", endsWith("/api/departments/" + department.getId() + "/removal")))
+                .andExpect(jsonPath("$.mode").value("DELETE_EMPLOYEES"))
+                .andExpect(jsonPath("$.totalEmployees").value(3));
+        awaitFinished(department.getId());
+
+        mockMvc.perform(get("/api/departments/{id}/removal", department.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.state").value("COMPLETED"))
+                .andExpect(jsonPath("$.processedEmployees").value(3));
+        mockMvc.perform(post("/api/departments/{id}/removal", -1L))
+                .andExpect(status().isNotFound());
+
+        Department deleted = department("RestDelete");
+        employees(deleted, 2);
+        mockMvc.perform(delete("/api/departments/{id}", deleted.getId()))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", endsWith("/api/departments/" + deleted.getId() + "/removal")));
+        awaitFinished(deleted.getId());
+        mockMvc.perform(get("/api/departments/{id}/removal", -1L))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("a job the executor turns down shows the department again and records the failure")
+    void rejectedJobUnmarksTheDepartment() {
+        Department department = department("Rejected");
+        AsyncTaskExecutor rejecting = task -> {
+            throw new TaskRejectedException("Executor is full");
+        };
+        DepartmentRemover remover = new DepartmentRemover(departmentService, employeeService, employeeRepository, rejecting, 10, Duration.ofMinutes(1));
+
+        assertThatThrownBy(() -> remover.startRemoval(department.getId(), DepartmentRemovalMode.DELETE_EMPLOYEES, null))
+                .isInstanceOf(TaskRejectedException.class);
+        assertThat(remover.getRemovalStatus(department.getId()).state()).isEqualTo(DepartmentRemovalStatus.State.FAILED);
+        assertThat(departmentService.getDepartmentById(department.getId()).isDeletionPending()).isFalse();
+    }
+}
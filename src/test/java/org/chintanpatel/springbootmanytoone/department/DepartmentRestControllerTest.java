@@ -0,0 +1,103 @@
+package org.chintanpatel.springbootmanytoone.department;
+
+import org.chintanpatel.springbootmanytoone.ListVersion;
+import org.chintanpatel.springbootmanytoone.TestFixtures;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+class DepartmentRestControllerTest {
+
+    @Autowired
+    private WebApplicationContext context;
+
+    @Autowired
+    private DepartmentService departmentService;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(context).build();
+    }
+
+    @Test
+    void createReadRenameAndDelete() throws Exception {
+        String name = "RestDept-" + System.nanoTime();
+        String location = mockMvc.perform(post("/api/departments").contentType(MediaType.APPLICATION_JSON).content("{\"departmentName\":\"" + name + "\"}"))
+                .andExpect(status().isCreated())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"0\""))
+                .andReturn().getResponse().getHeader(HttpHeaders.LOCATION);
+
+        mockMvc.perform(get(location).header(HttpHeaders.IF_NONE_MATCH, "\"0\""))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(put(location).header(HttpHeaders.IF_MATCH, "\"0\"").contentType(MediaType.APPLICATION_JSON).content("{\"departmentName\":\"" + name + "-2\"}"))
+                .andExpect(status().isNoContent())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1\""));
+        mockMvc.perform(put(location).header(HttpHeaders.IF_MATCH, "\"0\"").contentType(MediaType.APPLICATION_JSON).content("{\"departmentName\":\"" + name + "-3\"}"))
+                .andExpect(status().isPreconditionFailed());
+        mockMvc.perform(get(location))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.departmentName").value(name + "-2"))
+                .andExpect(jsonPath("$.version").value(1));
+        mockMvc.perform(delete(location).header(HttpHeaders.IF_MATCH, "\"1\""))
+                .andExpect(status().isNoContent());
+        mockMvc.perform(get(location))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void listAnswers304UntilADepartmentChanges() throws Exception {
+        MvcResult first = mockMvc.perform(get("/api/departments"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
+                .andReturn();
+        String etag = first.getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/api/departments").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+
+        mockMvc.perform(post("/api/departments").contentType(MediaType.APPLICATION_JSON).content("{\"departmentName\":\"RestList-" + System.nanoTime() + "\"}"))
+                .andExpect(status().isCreated());
+        mockMvc.perform(get("/api/departments").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk());
+        mockMvc.perform(post("/api/departments").contentType(MediaType.APPLICATION_JSON).content("{\"departmentName\":\"\"}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void listVersionNeverGoesBackAndLeavesOutDepartmentsBeingRemoved() throws Exception {
+        Department newest = TestFixtures.department(TestFixtures.unique("RestNewest"));
+        departmentService.addDepartment(newest);
+        ListVersion before = departmentService.getDepartmentListVersion();
+
+        // Marking drops the newest row from the list, as deleting it does; neither may move Last-Modified back
+        assertThat(departmentService.markDepartmentForRemoval(newest.getId())).isTrue();
+        ListVersion marked = departmentService.getDepartmentListVersion();
+        assertThat(marked.count()).isEqualTo(before.count() - 1);
+        assertThat(marked.lastModified()).isAfterOrEqualTo(before.lastModified());
+        assertThat(marked.etag()).isNotEqualTo(before.etag());
+
+        assertThat(departmentService.deleteDepartmentById(newest.getId())).isTrue();
+        ListVersion deleted = departmentService.getDepartmentListVersion();
+        assertThat(deleted.count()).isEqualTo(marked.count());
+        assertThat(deleted.lastModified()).isAfterOrEqualTo(marked.lastModified());
+
+        HttpHeaders ifModifiedSince = new HttpHeaders();
+        ifModifiedSince.setIfModifiedSince(deleted.lastModified());
+        mockMvc.perform(get("/api/departments").headers(ifModifiedSince))
+                .andExpect(status().isNotModified());
+    }
+}
@@ -0,0 +1,103 @@
+package org.chintanpatel.springbootmanytoone.department;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.interceptor.SimpleKey;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.chintanpatel.springbootmanytoone.TestFixtures.department;
+import static org.chintanpatel.springbootmanytoone.TestFixtures.unique;
+
+@SpringBootTest
+class DepartmentServiceCacheTest {
+
+    @Autowired
+    private DepartmentService departmentService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void getAllDepartmentList_servedFromCacheUntilWrite() {
+        departmentService.getAllDepartmentList();
+        departmentService.getAllDepartmentList();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+
+        departmentService.addDepartment(department(unique("Cache")));
+        statistics.clear();
+        departmentService.getAllDepartmentList();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void getDepartmentById_cachedAndEvictedOnUpdate() {
+        Department saved = department(unique("Cache"));
+        departmentService.addDepartment(saved);
+        statistics.clear();
+
+        departmentService.getDepartmentById(saved.getId());
+        departmentService.getDepartmentById(saved.getId());
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+
+        saved.setDepartmentName(saved.getDepartmentName() + "-renamed");
+        departmentService.updateDepartment(saved);
+        assertThat(departmentService.getDepartmentById(saved.getId()).getDepartmentName()).endsWith("-renamed");
+    }
+
+    @Test
+    void departmentNameSearchTakesWildcardsLiterally() {
+        Department underscore = department(unique("Under_score"));
+        Department lookalike = department(unique("Underxscore"));
+        Department percent = department(unique("Fifty%Off"));
+        departmentService.addDepartment(underscore);
+        departmentService.addDepartment(lookalike);
+        departmentService.addDepartment(percent);
+
+        assertThat(departmentService.getDepartmentIdsByDepartmentName("R_S")).contains(underscore.getId()).doesNotContain(lookalike.getId());
+        assertThat(departmentService.getDepartmentIdsByDepartmentName("%")).contains(percent.getId()).doesNotContain(underscore.getId(), lookalike.getId());
+    }
+
+    @Test
+    void evictionWaitsForTheTransactionToCommit() {
+        departmentService.getAllDepartmentList();
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            departmentService.addDepartment(department(unique("Cache")));
+            assertThat(cacheManager.getCache("departmentList").get(SimpleKey.EMPTY)).isNotNull();
+        });
+        assertThat(cacheManager.getCache("departmentList").get(SimpleKey.EMPTY)).isNull();
+    }
+
+    @Test
+    void cacheRecordsHitAndMissStatistics() {
+        departmentService.getAllDepartmentList();
+        departmentService.getAllDepartmentList();
+        @SuppressWarnings("unchecked")
+        Cache<Object, Object> nativeCache = (Cache<Object, Object>) cacheManager.getCache("departmentList").getNativeCache();
+        assertThat(nativeCache.stats().hitCount()).isGreaterThanOrEqualTo(1);
+        assertThat(nativeCache.stats().missCount()).isGreaterThanOrEqualTo(1);
+    }
+}
@@ -1,15 +1,21 @@
 package org.chintanpatel.springbootmanytoone.department;
 
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 
+import java.math.BigDecimal;
 import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -18,6 +24,9 @@ class DepartmentServiceImplTest {
     @Mock
     private DepartmentRepository departmentRepository;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private DepartmentServiceImpl departmentService;
 
@@ -32,12 +41,22 @@ class DepartmentServiceImplTest {
     void addDepartment_delegatesToRepository() {
         Department d = dep(0, "IT");
         departmentService.addDepartment(d);
-        verify(departmentRepository).save(d);
+        verify(departmentRepository).saveAndFlush(d);
+    }
+
+    @Test
+    void addDepartment_uniqueViolation_translated() {
+        Department d = dep(0, "IT");
+        when(departmentRepository.saveAndFlush(d)).thenThrow(new DataIntegrityViolationException("dup",
+                new ConstraintViolationException("dup", null, "department_department_name_key")));
+        assertThatThrownBy(() -> departmentService.addDepartment(d))
+                .isInstanceOf(DepartmentAlreadyExistsException.class)
+                .hasMessage("Department already exists");
     }
 
     @Test
     void getAllDepartmentList_returnsData() {
-        when(departmentRepository.findAll()).thenReturn(List.of(dep(1, "IT")));
+        when(departmentRepository.findByDeletionPendingFalse()).thenReturn(List.of(dep(1, "IT")));
         assertThat(departmentService.getAllDepartmentList()).hasSize(1);
     }
 
@@ -50,16 +69,50 @@ class DepartmentServiceImplTest {
     }
 
     @Test
-    void updateDepartment_delegatesToRepository() {
-        Department d = dep(1, "IT");
+    void updateDepartment_singleVersionedUpdate() {
+        Department d = dep(1, "Ops");
+        d.setVersion(0L);
+        when(departmentRepository.updateIfVersionMatches(d)).thenReturn(1);
         departmentService.updateDepartment(d);
-        verify(departmentRepository).save(d);
+        verify(departmentRepository, never()).findById(any());
+    }
+
+    @Test
+    void updateDepartment_staleVersion_throwsOptimisticLockingFailure() {
+        Department d = dep(1, "Ops");
+        d.setVersion(0L);
+        when(departmentRepository.updateIfVersionMatches(d)).thenReturn(0);
+        assertThatThrownBy(() -> departmentService.updateDepartment(d))
+                .isInstanceOf(ObjectOptimisticLockingFailureException.class);
     }
 
     @Test
-    void deleteDepartmentById_delegatesToRepository() {
-        departmentService.deleteDepartmentById(3L);
-        verify(departmentRepository).deleteById(3L);
+    void updateDepartment_duplicateName_translated() {
+        Department d = dep(1, "IT");
+        d.setVersion(0L);
+        when(departmentRepository.updateIfVersionMatches(d)).thenThrow(new DataIntegrityViolationException("dup",
+                new ConstraintViolationException("dup", null, "department_department_name_key")));
+        assertThatThrownBy(() -> departmentService.updateDepartment(d))
+                .isInstanceOf(DepartmentAlreadyExistsException.class);
+    }
+
+    @Test
+    void deleteDepartmentById_singleStatementDelete() {
+        when(departmentRepository.deleteDepartmentById(3L)).thenReturn(1);
+        assertThat(departmentService.deleteDepartmentById(3L)).isTrue();
+        assertThat(departmentService.deleteDepartmentById(4L)).isFalse();
+        verify(eventPublisher).publishEvent(new DepartmentDeletingEvent(3L));
+        verify(eventPublisher).publishEvent(new DepartmentDeletedEvent(3L));
+        verify(eventPublisher, never()).publishEvent(new DepartmentDeletedEvent(4L));
+        verify(departmentRepository, never()).findById(any());
+    }
+
+    @Test
+    void deleteEmptyDepartmentById_singleConditionalDelete() {
+        when(departmentRepository.deleteEmptyDepartmentById(3L)).thenReturn(1);
+        assertThat(departmentService.deleteEmptyDepartmentById(3L)).isTrue();
+        assertThat(departmentService.deleteEmptyDepartmentById(4L)).isFalse();
+        verifyNoInteractions(eventPublisher);
     }
 
     @Test
@@ -67,4 +120,18 @@ class DepartmentServiceImplTest {
         when(departmentRepository.existsByDepartmentName("IT")).thenReturn(true);
         assertThat(departmentService.isDepartmentExist("IT")).isTrue();
     }
+
+    @Test
+    void getDepartmentIdsByDepartmentName_delegatesToRepository() {
+        when(departmentRepository.findIdsByDepartmentNameLike("%it%")).thenReturn(List.of(1L, 2L));
+        assertThat(departmentService.getDepartmentIdsByDepartmentName("it")).containsExactly(1L, 2L);
+    }
+
+    @Test
+    void getDepartmentSummaries_keyedByDepartmentId() {
+        DepartmentSummary it = new DepartmentSummary(1L, 2L, new BigDecimal("3000.00"), new BigDecimal("1000.00"), new BigDecimal("2000.00"));
+        when(departmentRepository.summarizeByDepartment()).thenReturn(List.of(it));
+        assertThat(departmentService.getDepartmentSummaries()).containsOnlyKeys(1L).containsEntry(1L, it);
+        assertThat(it.averageSalary()).isEqualByComparingTo("1500.00");
+    }
 }
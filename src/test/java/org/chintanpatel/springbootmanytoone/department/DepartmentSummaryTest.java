@@ -0,0 +1,88 @@
+package org.chintanpatel.springbootmanytoone.department;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.chintanpatel.springbootmanytoone.TestFixtures;
+import org.chintanpatel.springbootmanytoone.employee.Employee;
+import org.chintanpatel.springbootmanytoone.employee.EmployeeRepository;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+class DepartmentSummaryTest {
+
+    @Autowired
+    private DepartmentService departmentService;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private WebApplicationContext context;
+
+    private Department department(String name) {
+        Department d = TestFixtures.department(TestFixtures.unique(name));
+        departmentService.addDepartment(d);
+        return d;
+    }
+
+    private void employee(Department department, String key, String salary) {
+        Employee e = TestFixtures.employee(key + "-" + department.getId(), department);
+        e.setSalary(new BigDecimal(salary));
+        employeeRepository.save(e);
+    }
+
+    @Test
+    void summariesComeFromOneGroupByStatement() {
+        Department sales = department("Sales");
+        Department empty = department("Empty");
+        employee(sales, "a", "1000.00");
+        employee(sales, "b", "2000.00");
+        employee(sales, "c", "4500.00");
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        Map<Long, DepartmentSummary> summaries = departmentService.getDepartmentSummaries();
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        DepartmentSummary summary = summaries.get(sales.getId());
+        assertThat(summary.headcount()).isEqualTo(3);
+        assertThat(summary.totalSalary()).isEqualByComparingTo("7500.00");
+        assertThat(summary.averageSalary()).isEqualByComparingTo("2500.00");
+        assertThat(summary.minSalary()).isEqualByComparingTo("1000.00");
+        assertThat(summary.maxSalary()).isEqualByComparingTo("4500.00");
+        assertThat(summaries).doesNotContainKey(empty.getId());
+    }
+
+    @Test
+    void departmentListShowsHeadcountAndPayroll() throws Exception {
+        Department support = department("Support");
+        employee(support, "a", "1234.50");
+        employee(support, "b", "1000.00");
+        MockMvc mockMvc = MockMvcBuilders.webAppContextSetup(context).build();
+
+        mockMvc.perform(get("/departments"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString(support.getDepartmentName())))
+                .andExpect(content().string(containsString("2234.50")))
+                .andExpect(content().string(containsString("1117.25")))
+                .andExpect(content().string(containsString("/departments/removeDepartment/" + support.getId())));
+    }
+}
@@ -0,0 +1,42 @@
+package org.chintanpatel.springbootmanytoone.employee;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.chintanpatel.springbootmanytoone.TestFixtures;
+import org.chintanpatel.springbootmanytoone.department.Department;
+import org.chintanpatel.springbootmanytoone.department.DepartmentRepository;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class EmployeeBatchInsertTest {
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private DepartmentRepository departmentRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void bulkSaveIsSentInBatches() {
+        Department department = departmentRepository.save(TestFixtures.department(TestFixtures.unique("Batch")));
+        List<Employee> employees = TestFixtures.employees("batch", department, 100);
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        employeeRepository.saveAll(employees);
+
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(100);
+        // 100 single-row inserts would prepare 100 statements; batches of 50 plus pooled sequence calls need far fewer
+        assertThat(statistics.getPrepareStatementCount()).isLessThan(10);
+    }
+}
@@ -9,8 +9,13 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.format.support.DefaultFormattingConversionService;
+import org.springframework.format.support.FormattingConversionService;
 import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.validation.beanvalidation.LocalValidatorFactoryBean;
 
@@ -21,14 +26,19 @@ import java.util.List;
 import static org.hamcrest.Matchers.containsString;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willThrow;
 import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @ExtendWith(MockitoExtension.class)
 class EmployeeControllerTest {
 
+    private static final long PENDING_DEPARTMENT_ID = 9;
+
     private MockMvc mockMvc;
 
     @Mock
@@ -42,8 +52,16 @@ class EmployeeControllerTest {
         EmployeeController controller = new EmployeeController(employeeService, departmentService);
         LocalValidatorFactoryBean validator = new LocalValidatorFactoryBean();
         validator.afterPropertiesSet();
+        // stands in for Spring Data's id -> entity converter, which standalone setup does not register
+        FormattingConversionService conversionService = new DefaultFormattingConversionService();
+        conversionService.addConverter(String.class, Department.class, id -> {
+            Department department = dep(Long.parseLong(id), "IT");
+            department.setDeletionPending(department.getId() == PENDING_DEPARTMENT_ID);
+            return department;
+        });
         this.mockMvc = MockMvcBuilders.standaloneSetup(controller)
                 .setValidator(validator)
+                .setConversionService(conversionService)
                 .build();
     }
 
@@ -72,13 +90,26 @@ class EmployeeControllerTest {
     }
 
     @Test
-    @DisplayName("GET /employees shows list")
+    @DisplayName("GET /employees shows first keyset page")
     void listEmployees() throws Exception {
-        given(employeeService.getAllEmployeeList()).willReturn(List.of(employee(1)));
+        EmployeePage page = new EmployeePage(List.of(EmployeeRow.from(employee(1))), null, 1L, 50);
+        given(employeeService.getEmployeePage(null, null, 50)).willReturn(page);
 
         mockMvc.perform(get("/employees"))
                 .andExpect(status().isOk())
-                .andExpect(model().attributeExists("employeeList"));
+                .andExpect(model().attributeExists("employeeList"))
+                .andExpect(model().attribute("employeePage", page));
+    }
+
+    @Test
+    @DisplayName("GET /employees passes cursor and size to the service")
+    void listEmployees_withCursor() throws Exception {
+        EmployeePage page = new EmployeePage(List.of(), 11L, null, 10);
+        given(employeeService.getEmployeePage(10L, null, 10)).willReturn(page);
+
+        mockMvc.perform(get("/employees").param("after", "10").param("size", "10"))
+                .andExpect(status().isOk())
+                .andExpect(model().attribute("employeePage", page));
     }
 
     @Test
@@ -108,10 +139,35 @@ class EmployeeControllerTest {
         Mockito.verifyNoInteractions(employeeService);
     }
 
+    @Test
+    @DisplayName("POST insertOrUpdate - a department being removed returns the form with an error")
+    void insertOrUpdateEmployee_departmentBeingRemoved() throws Exception {
+        given(departmentService.getAllDepartmentList()).willReturn(List.of(dep(1, "IT")));
+
+        mockMvc.perform(post("/employees/insertOrUpdateEmployee")
+                        .contentType(MediaType.APPLICATION_FORM_URLENCODED)
+                        .param("firstName", "John")
+                        .param("middleName", "Q")
+                        .param("lastName", "Doe")
+                        .param("address", "123 Street")
+                        .param("email", "john@acme.com")
+                        .param("mobileNumber", "9999999999")
+                        .param("hiringDate", "2024-01-01")
+                        .param("salary", "1000.00")
+                        .param("userName", "johndoe")
+                        .param("password", "password8")
+                        .param("department", Long.toString(PENDING_DEPARTMENT_ID))
+                )
+                .andExpect(status().isOk())
+                .andExpect(model().attributeHasFieldErrorCode("employee", "department", "department.deletionPending"));
+
+        Mockito.verifyNoInteractions(employeeService);
+    }
+
     @Test
     @DisplayName("POST insert - duplicate email redirects back with error")
     void insertEmployee_duplicateEmail() throws Exception {
-        given(employeeService.isEmailExist("john@acme.com")).willReturn(true);
+        willThrow(new EmployeeAlreadyExistsException("Email already exists", null)).given(employeeService).addEmployee(any(Employee.class));
 
         mockMvc.perform(post("/employees/insertOrUpdateEmployee")
                         .contentType(MediaType.APPLICATION_FORM_URLENCODED)
@@ -135,8 +191,7 @@ class EmployeeControllerTest {
     @Test
     @DisplayName("POST insert - duplicate username redirects back with error")
     void insertEmployee_duplicateUserName() throws Exception {
-        given(employeeService.isEmailExist("john@acme.com")).willReturn(false);
-        given(employeeService.isUserNameExist("johndoe")).willReturn(true);
+        willThrow(new EmployeeAlreadyExistsException("User Name already exists", null)).given(employeeService).addEmployee(any(Employee.class));
 
         mockMvc.perform(post("/employees/insertOrUpdateEmployee")
                         .contentType(MediaType.APPLICATION_FORM_URLENCODED)
@@ -160,9 +215,6 @@ class EmployeeControllerTest {
     @Test
     @DisplayName("POST insert - success redirects to list")
     void insertEmployee_success() throws Exception {
-        given(employeeService.isEmailExist(anyString())).willReturn(false);
-        given(employeeService.isUserNameExist(anyString())).willReturn(false);
-
         mockMvc.perform(post("/employees/insertOrUpdateEmployee")
                         .contentType(MediaType.APPLICATION_FORM_URLENCODED)
                         .param("firstName", "John")
@@ -182,6 +234,8 @@ class EmployeeControllerTest {
                 .andExpect(flash().attribute("successMessage", containsString("Employee added successfully")));
 
         verify(employeeService).addEmployee(org.mockito.ArgumentMatchers.any(Employee.class));
+        verify(employeeService, Mockito.never()).isEmailExist(anyString());
+        verify(employeeService, Mockito.never()).isUserNameExist(anyString());
     }
 
     @Test
@@ -209,6 +263,32 @@ class EmployeeControllerTest {
         verify(employeeService).updateEmployee(org.mockito.ArgumentMatchers.any(Employee.class));
     }
 
+    @Test
+    @DisplayName("POST update - stale version redirects back to the edit form")
+    void updateEmployee_staleVersion() throws Exception {
+        willThrow(new ObjectOptimisticLockingFailureException(Employee.class, 5L)).given(employeeService).updateEmployee(any(Employee.class));
+
+        mockMvc.perform(post("/employees/insertOrUpdateEmployee")
+                        .contentType(MediaType.APPLICATION_FORM_URLENCODED)
+                        .param("id", "5")
+                        .param("version", "2")
+                        .param("firstName", "John")
+                        .param("middleName", "Q")
+                        .param("lastName", "Doe")
+                        .param("address", "123 Street")
+                        .param("email", "john@acme.com")
+                        .param("mobileNumber", "9999999999")
+                        .param("hiringDate", "2024-01-01")
+                        .param("salary", "1000.00")
+                        .param("userName", "johndoe")
+                        .param("password", "password8")
+                        .param("department", "1")
+                )
+                .andExpect(status().is3xxRedirection())
+                .andExpect(redirectedUrl("/employees/manageEmployee/5"))
+                .andExpect(flash().attribute("errorMessage", containsString("changed by someone else")));
+    }
+
     @Test
     @DisplayName("GET manageEmployee/{id} - found shows form, not found redirects")
     void manageEmployee() throws Exception {
@@ -229,18 +309,34 @@ class EmployeeControllerTest {
     @Test
     @DisplayName("GET deleteEmployee/{id} - success and not found paths")
     void deleteEmployee() throws Exception {
-        given(employeeService.getEmployeeById(1L)).willReturn(employee(1));
+        given(employeeService.deleteEmployeeById(1L)).willReturn(true);
 
         mockMvc.perform(get("/employees/deleteEmployee/{id}", 1))
                 .andExpect(status().is3xxRedirection())
                 .andExpect(redirectedUrl("/employees"))
                 .andExpect(flash().attribute("successMessage", containsString("deleted successfully")));
 
-        given(employeeService.getEmployeeById(2L)).willReturn(null);
+        given(employeeService.deleteEmployeeById(2L)).willReturn(false);
         mockMvc.perform(get("/employees/deleteEmployee/{id}", 2))
                 .andExpect(status().is3xxRedirection())
                 .andExpect(redirectedUrl("/employees"))
                 .andExpect(flash().attribute("errorMessage", containsString("Employee not found")));
+        verify(employeeService, Mockito.never()).getEmployeeById(anyLong());
+    }
+
+    @Test
+    @DisplayName("POST deleteEmployees - deletes the selected ids, rejects an empty selection")
+    void deleteEmployees() throws Exception {
+        given(employeeService.deleteEmployeesByIds(List.of(1L, 2L, 3L))).willReturn(3);
+
+        mockMvc.perform(post("/employees/deleteEmployees").param("ids", "1", "2", "3"))
+                .andExpect(status().is3xxRedirection())
+                .andExpect(redirectedUrl("/employees"))
+                .andExpect(flash().attribute("successMessage", containsString("3 employee(s) deleted successfully")));
+
+        mockMvc.perform(post("/employees/deleteEmployees"))
+                .andExpect(status().is3xxRedirection())
+                .andExpect(flash().attribute("errorMessage", containsString("No employees selected")));
     }
 
     @Test
@@ -258,4 +354,43 @@ class EmployeeControllerTest {
                 .andExpect(model().attribute("searchType", "departmentName"))
                 .andExpect(model().attributeExists("employeeList"));
     }
+
+    @Test
+    @DisplayName("POST /employees/import streams the upload to the service and shows the report")
+    void importEmployees() throws Exception {
+        EmployeeImportReport report = new EmployeeImportReport(2, 1, List.of(new EmployeeImportReport.RowError(2, "Email already exists")));
+        given(employeeService.importEmployees(any(), eq(EmployeeFileFormat.JSON_LINES))).willReturn(report);
+
+        mockMvc.perform(multipart("/employees/import")
+                        .file(new MockMultipartFile("file", "employees.jsonl", "application/x-ndjson", "{}\n{}\n".getBytes())))
+                .andExpect(status().isOk())
+                .andExpect(view().name("employee/employee-import"))
+                .andExpect(model().attribute("importReport", report));
+    }
+
+    @Test
+    @DisplayName("POST /employees/import with an empty file shows an error")
+    void importEmployees_emptyFile() throws Exception {
+        mockMvc.perform(multipart("/employees/import")
+                        .file(new MockMultipartFile("file", "employees.csv", "text/csv", new byte[0])))
+                .andExpect(status().isOk())
+                .andExpect(model().attributeExists("errorMessage"));
+
+        Mockito.verifyNoInteractions(employeeService);
+    }
+
+    @Test
+    @DisplayName("GET /employees/export streams the roster as an attachment")
+    void exportEmployees() throws Exception {
+        MvcResult result = mockMvc.perform(get("/employees/export").param("format", "jsonl"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Disposition", containsString("employees.jsonl")))
+                .andExpect(content().contentTypeCompatibleWith("application/x-ndjson"));
+
+        verify(employeeService).exportEmployees(any(), eq(EmployeeFileFormat.JSON_LINES));
+    }
 }
@@ -0,0 +1,86 @@
+package org.chintanpatel.springbootmanytoone.employee;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.chintanpatel.springbootmanytoone.TestFixtures;
+import org.chintanpatel.springbootmanytoone.department.Department;
+import org.chintanpatel.springbootmanytoone.department.DepartmentService;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.chintanpatel.springbootmanytoone.SqlStatementAssert.assertThatStatements;
+
+@SpringBootTest
+class EmployeeDeleteStatementTest {
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Autowired
+    private DepartmentService departmentService;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Department department;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        department = TestFixtures.department(TestFixtures.unique("Delete"));
+        departmentService.addDepartment(department);
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    private Long employee() {
+        Employee e = TestFixtures.employee(TestFixtures.unique("del"), department);
+        employeeService.addEmployee(e);
+        return e.getId();
+    }
+
+    @Test
+    void deleteByIdIsOneDeleteAndReportsMissingRows() {
+        Long id = employee();
+
+        // the delete runs as plain SQL, so it is counted at the data source rather than by Hibernate;
+        // the other statement moves the list's removal time on
+        assertThatStatements(() -> assertThat(employeeService.deleteEmployeeById(id)).isTrue()).hasCount(2);
+        assertThat(employeeService.deleteEmployeeById(id)).isFalse();
+        assertThat(employeeRepository.existsById(id)).isFalse();
+    }
+
+    @Test
+    void bulkDeleteIsOneDelete() {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            ids.add(employee());
+        }
+
+        assertThatStatements(() -> assertThat(employeeService.deleteEmployeesByIds(ids)).isEqualTo(20)).hasCount(2);
+        assertThat(employeeRepository.findByIdIn(ids)).isEmpty();
+    }
+
+    @Test
+    void deletingADepartmentIsOneDelete() {
+        Long id = employee();
+        employee();
+        statistics.clear();
+
+        assertThat(departmentService.deleteDepartmentById(department.getId())).isTrue();
+        // the employees go with the department through the ON DELETE CASCADE foreign key;
+        // the other two statements move the department and employee lists' removal times on
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+        assertThat(employeeRepository.existsById(id)).isFalse();
+    }
+}
@@ -0,0 +1,67 @@
+package org.chintanpatel.springbootmanytoone.employee;
+
+import org.chintanpatel.springbootmanytoone.TestFixtures;
+import org.chintanpatel.springbootmanytoone.department.Department;
+import org.chintanpatel.springbootmanytoone.department.DepartmentRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.chintanpatel.springbootmanytoone.TestFixtures.unique;
+
+@SpringBootTest
+class EmployeeExporterTest {
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private DepartmentRepository departmentRepository;
+
+    @BeforeEach
+    void setUp() {
+        employeeRepository.deleteAllInBatch();
+        Department department = departmentRepository.save(TestFixtures.department(unique("Export")));
+        for (int i = 0; i < 3; i++) {
+            Employee e = TestFixtures.employee(unique("exp"), department);
+            e.setFirstName("Exp" + i);
+            e.setAddress("1 Main St, \"Apt\" " + i);
+            e.setSalary(new BigDecimal("1000.50"));
+            e.setPassword("secret-pw");
+            employeeRepository.save(e);
+        }
+    }
+
+    private List<String> export(EmployeeFileFormat format) {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        employeeService.exportEmployees(output, format);
+        return output.toString(StandardCharsets.UTF_8).lines().toList();
+    }
+
+    @Test
+    void exportsCsvWithHeaderQuotingAndDepartmentName() {
+        List<String> lines = export(EmployeeFileFormat.CSV);
+        assertThat(lines).hasSize(4);
+        assertThat(lines.getFirst()).isEqualTo(EmployeeExporter.CSV_HEADER);
+        assertThat(lines.get(1)).contains("Exp0,Q,Doe,\"1 Main St, \"\"Apt\"\" 0\"").contains(",2024-01-01,1000.50,").contains("Export-");
+        assertThat(String.join("\n", lines)).doesNotContain("secret-pw");
+    }
+
+    @Test
+    void exportsJsonLines() {
+        List<String> lines = export(EmployeeFileFormat.JSON_LINES);
+        assertThat(lines).hasSize(3);
+        assertThat(lines.getFirst()).contains("\"firstName\":\"Exp0\"").contains("\"hiringDate\":\"2024-01-01\"").contains("\"departmentName\":\"Export-");
+        assertThat(String.join("\n", lines)).doesNotContain("password").doesNotContain("secret-pw");
+    }
+}
@@ -0,0 +1,133 @@
+package org.chintanpatel.springbootmanytoone.employee;
+
+import org.chintanpatel.springbootmanytoone.TestFixtures;
+import org.chintanpatel.springbootmanytoone.department.Department;
+import org.chintanpatel.springbootmanytoone.department.DepartmentService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import java.io.StringReader;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.chintanpatel.springbootmanytoone.TestFixtures.unique;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.doReturn;
+
+@SpringBootTest(properties = "employee.import.chunk-size=2")
+class EmployeeImporterTest {
+
+    private static final String HEADER = "firstName,middleName,lastName,address,email,mobileNumber,hiringDate,salary,userName,password,departmentName\n";
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Autowired
+    private DepartmentService departmentService;
+
+    @MockitoSpyBean
+    private EmployeeRepository employeeRepository;
+
+    private String suffix;
+
+    private String departmentName;
+
+    @BeforeEach
+    void setUp() {
+        suffix = unique("imp");
+        Department department = TestFixtures.department(unique("Import"));
+        departmentService.addDepartment(department);
+        departmentName = department.getDepartmentName();
+    }
+
+    private String csvRow(String name, String email, String salary, String department) {
+        return String.join(",", name, "Q", "Doe", "\"1 Main St, Apt 2\"", email, "9999999999", "2024-01-01",
+                salary, name + "-" + suffix, "password8", department) + "\n";
+    }
+
+    @Test
+    void importsCsvAndReportsRejectedRows() {
+        String department = departmentName.toLowerCase();
+        String csv = HEADER
+                + csvRow("Ann", "ann-" + suffix + "@acme.com", "1000.00", department)
+                + csvRow("Bob", "ann-" + suffix + "@acme.com", "1000.00", department)
+                + csvRow("Cid", "cid-" + suffix + "@acme.com", "abc", department)
+                + csvRow("Dee", "dee-" + suffix + "@acme.com", "1000.00", "Nowhere")
+                + csvRow("Eve", "not-an-email", "1000.00", department)
+                + csvRow("Fay", "fay-" + suffix + "@acme.com", "1000.00", department);
+
+        EmployeeImportReport report = employeeService.importEmployees(new StringReader(csv), EmployeeFileFormat.CSV);
+
+        assertThat(report.totalRows()).isEqualTo(6);
+        assertThat(report.importedRows()).isEqualTo(2);
+        assertThat(report.errors()).extracting(EmployeeImportReport.RowError::rowNumber).containsExactly(2L, 3L, 4L, 5L);
+        assertThat(report.errors().get(0).message()).isEqualTo("Email already exists");
+        assertThat(report.errors().get(1).message()).startsWith("Invalid salary");
+        assertThat(report.errors().get(2).message()).startsWith("Department not found");
+        assertThat(report.errors().get(3).message()).isEqualTo("Please Provide Valid Email");
+        assertThat(employeeService.isEmailExist("fay-" + suffix + "@acme.com")).isTrue();
+    }
+
+    @Test
+    void importsJsonLinesAndRejectsExistingUserNames() {
+        String line = "{\"firstName\":\"Gus\",\"middleName\":\"Q\",\"lastName\":\"Doe\",\"address\":\"1 Main St\","
+                + "\"email\":\"gus-%s-%d@acme.com\",\"mobileNumber\":\"9999999999\",\"hiringDate\":\"2024-01-01\","
+                + "\"salary\":\"1000.00\",\"userName\":\"gus-%s\",\"password\":\"password8\",\"departmentName\":\"%s\"}\n";
+        String jsonLines = line.formatted(suffix, 1, suffix, departmentName) + "{not json}\n";
+
+        EmployeeImportReport first = employeeService.importEmployees(new StringReader(jsonLines), EmployeeFileFormat.JSON_LINES);
+        assertThat(first.importedRows()).isEqualTo(1);
+        assertThat(first.errors()).singleElement().satisfies(error -> {
+            assertThat(error.rowNumber()).isEqualTo(2);
+            assertThat(error.message()).startsWith("Invalid JSON");
+        });
+
+        EmployeeImportReport second = employeeService.importEmployees(new StringReader(line.formatted(suffix, 2, suffix, departmentName)), EmployeeFileFormat.JSON_LINES);
+        assertThat(second.importedRows()).isZero();
+        assertThat(second.errors()).extracting(EmployeeImportReport.RowError::message).containsExactly("User Name already exists");
+    }
+
+    @Test
+    void rowRejectedForUserNameDoesNotReserveItsEmail() {
+        String department = departmentName.toLowerCase();
+        employeeService.importEmployees(new StringReader(HEADER + csvRow("Hal", "hal-" + suffix + "@acme.com", "1000.00", department)), EmployeeFileFormat.CSV);
+
+        String csv = HEADER
+                + csvRow("Hal", "ivy-" + suffix + "@acme.com", "1000.00", department)
+                + csvRow("Ivy", "ivy-" + suffix + "@acme.com", "1000.00", department);
+
+        EmployeeImportReport report = employeeService.importEmployees(new StringReader(csv), EmployeeFileFormat.CSV);
+
+        assertThat(report.importedRows()).isEqualTo(1);
+        assertThat(report.errors()).singleElement().satisfies(error -> {
+            assertThat(error.rowNumber()).isEqualTo(1);
+            assertThat(error.message()).isEqualTo("User Name already exists");
+        });
+        assertThat(employeeService.isEmailExist("ivy-" + suffix + "@acme.com")).isTrue();
+    }
+
+    @Test
+    void duplicateCaughtOnlyByTheDatabaseRollsBackItsChunkAndReportsIt() {
+        String department = departmentName.toLowerCase();
+        String takenEmail = "jan-" + suffix + "@acme.com";
+        employeeService.importEmployees(new StringReader(HEADER + csvRow("Jan", takenEmail, "1000.00", department)), EmployeeFileFormat.CSV);
+        // As if another import committed the email between the lookup and the flush
+        doReturn(List.of()).when(employeeRepository).findExistingEmails(anyCollection());
+
+        String csv = HEADER
+                + csvRow("Kim", "kim-" + suffix + "@acme.com", "1000.00", department)
+                + csvRow("Lee", takenEmail, "1000.00", department)
+                + csvRow("Max", "max-" + suffix + "@acme.com", "1000.00", department);
+
+        EmployeeImportReport report = employeeService.importEmployees(new StringReader(csv), EmployeeFileFormat.CSV);
+
+        assertThat(report.importedRows()).isEqualTo(1);
+        assertThat(report.errors()).extracting(EmployeeImportReport.RowError::rowNumber).containsExactly(1L, 2L);
+        assertThat(report.errors()).allSatisfy(error -> assertThat(error.message()).startsWith("Chunk rolled back"));
+        assertThat(employeeService.isEmailExist("kim-" + suffix + "@acme.com")).isFalse();
+        assertThat(employeeService.isEmailExist("max-" + suffix + "@acme.com")).isTrue();
+    }
+}
@@ -0,0 +1,112 @@
+package org.chintanpatel.springbootmanytoone.employee;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.chintanpatel.springbootmanytoone.TestFixtures;
+import org.chintanpatel.springbootmanytoone.department.Department;
+import org.chintanpatel.springbootmanytoone.department.DepartmentRepository;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+class EmployeeListStatementCountTest {
+
+    @Autowired
+    private WebApplicationContext context;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private DepartmentRepository departmentRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private InMemoryEmployeeSearchEngine searchEngine;
+
+    private MockMvc mockMvc;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setup() {
+        TestFixtures.deleteAll(employeeRepository, departmentRepository);
+        this.mockMvc = MockMvcBuilders.webAppContextSetup(context).build();
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    private void seed(int count) {
+        // departments are written straight through the repository here, so drop anything the department cache holds
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+        List<Department> departments = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            departments.add(departmentRepository.save(TestFixtures.department("Dept" + departments.size() + "-" + count)));
+        }
+        for (int i = 0; i < count; i++) {
+            employeeRepository.save(TestFixtures.employee("john" + i + "-" + count, departments.get(i % departments.size())));
+        }
+        // the batch deletes bypass the index, so drop the employees other tests left in it
+        searchEngine.rebuild();
+    }
+
+    private long statementsFor(String url, String param, String value) throws Exception {
+        statistics.clear();
+        mockMvc.perform(get(url).param(param, value))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("Dept")));
+        return statistics.getPrepareStatementCount();
+    }
+
+    @Test
+    @DisplayName("list and search renders issue the same number of statements for 5 and 50 rows")
+    void statementCountIndependentOfRowCount() throws Exception {
+        seed(5);
+        long smallList = statementsFor("/employees", "size", "50");
+        long smallNameSearch = statementsFor("/employees/search/employeeName", "employeeName", "john");
+        long smallDepartmentSearch = statementsFor("/employees/search/departmentName", "departmentName", "dept");
+
+        TestFixtures.deleteAll(employeeRepository, departmentRepository);
+        seed(50);
+        long largeList = statementsFor("/employees", "size", "50");
+        long largeNameSearch = statementsFor("/employees/search/employeeName", "employeeName", "john");
+        long largeDepartmentSearch = statementsFor("/employees/search/departmentName", "departmentName", "dept");
+
+        assertThat(largeList).isEqualTo(smallList).isEqualTo(1);
+        assertThat(largeNameSearch).isEqualTo(smallNameSearch).isEqualTo(1);
+        // department ids are resolved first, then employees are loaded in one statement
+        assertThat(largeDepartmentSearch).isEqualTo(smallDepartmentSearch).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("findAll loads departments with the employees")
+    void findAllFetchesDepartment() {
+        seed(10);
+        statistics.clear();
+        List<Employee> employees = employeeRepository.findAll();
+        employees.forEach(e -> e.getDepartment().getDepartmentName());
+        assertThat(employees).hasSize(10);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+}
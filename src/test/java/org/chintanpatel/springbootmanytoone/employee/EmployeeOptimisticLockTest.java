@@ -0,0 +1,91 @@
+package org.chintanpatel.springbootmanytoone.employee;
+
+import org.chintanpatel.springbootmanytoone.SqlStatementRecorder;
+import org.chintanpatel.springbootmanytoone.TestFixtures;
+import org.chintanpatel.springbootmanytoone.department.Department;
+import org.chintanpatel.springbootmanytoone.department.DepartmentService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+class EmployeeOptimisticLockTest {
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Autowired
+    private DepartmentService departmentService;
+
+    private Employee saved;
+
+    @BeforeEach
+    void setUp() {
+        Department department = TestFixtures.department(TestFixtures.unique("Lock"));
+        departmentService.addDepartment(department);
+
+        saved = TestFixtures.employee(TestFixtures.unique("lock"), department);
+        employeeService.addEmployee(saved);
+    }
+
+    // A copy of the row as the edit form would post it back
+    private Employee formCopy() {
+        Employee e = employeeService.getEmployeeById(saved.getId());
+        Employee copy = new Employee();
+        copy.setId(e.getId());
+        copy.setVersion(e.getVersion());
+        copy.setFirstName(e.getFirstName());
+        copy.setMiddleName(e.getMiddleName());
+        copy.setLastName(e.getLastName());
+        copy.setAddress(e.getAddress());
+        copy.setEmail(e.getEmail());
+        copy.setMobileNumber(e.getMobileNumber());
+        copy.setHiringDate(e.getHiringDate());
+        copy.setSalary(e.getSalary());
+        copy.setUserName(e.getUserName());
+        copy.setPassword(e.getPassword());
+        copy.setDepartment(saved.getDepartment());
+        return copy;
+    }
+
+    @Test
+    void editIsOneVersionedUpdateWithoutASelect() {
+        Employee form = formCopy();
+        form.setSalary(new BigDecimal("2000.00"));
+
+        List<String> statements;
+        try (SqlStatementRecorder.Recording recording = SqlStatementRecorder.start()) {
+            employeeService.updateEmployee(form);
+            statements = recording.statements();
+        }
+
+        assertThat(statements).singleElement().satisfies(sql -> assertThat(sql)
+                .startsWith("update employee")
+                .contains("where employee_id = ? and version = ?"));
+        Employee reloaded = employeeService.getEmployeeById(saved.getId());
+        assertThat(reloaded.getSalary()).isEqualByComparingTo("2000.00");
+        assertThat(reloaded.getVersion()).isEqualTo(form.getVersion()).isEqualTo(saved.getVersion() + 1);
+    }
+
+    @Test
+    void concurrentEditIsRejectedInsteadOfOverwritten() {
+        Employee first = formCopy();
+        Employee second = formCopy();
+        first.setLastName("First");
+        second.setLastName("Second");
+
+        employeeService.updateEmployee(first);
+
+        assertThatThrownBy(() -> employeeService.updateEmployee(second))
+                .isInstanceOf(ObjectOptimisticLockingFailureException.class);
+        assertThat(employeeService.getEmployeeById(saved.getId()).getLastName()).isEqualTo("First");
+    }
+}
@@ -0,0 +1,206 @@
+package org.chintanpatel.springbootmanytoone.employee;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.chintanpatel.springbootmanytoone.department.Department;
+import org.chintanpatel.springbootmanytoone.department.DepartmentService;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasItem;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+class EmployeeRestControllerTest {
+
+    @Autowired
+    private WebApplicationContext context;
+
+    @Autowired
+    private DepartmentService departmentService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private MockMvc mockMvc;
+
+    private Department department;
+
+    private String suffix;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(context).build();
+        suffix = Long.toString(System.nanoTime());
+        department = new Department();
+        department.setDepartmentName("Rest-" + suffix);
+        departmentService.addDepartment(department);
+    }
+
+    private String json(String key, String lastName) {
+        return """
+                {"firstName":"John","middleName":"Q","lastName":"%s","address":"123 Street","email":"%s@acme.com",
+                 "mobileNumber":"9999999999","hiringDate":"2024-01-01","salary":1000.00,"userName":"%s",
+                 "password":"password8","departmentId":%d}
+                """.formatted(lastName, key, key, department.getId());
+    }
+
+    private String create(String key) throws Exception {
+        MvcResult result = mockMvc.perform(post("/api/employees").contentType(MediaType.APPLICATION_JSON).content(json(key, "Doe")))
+                .andExpect(status().isCreated())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"0-0\""))
+                .andExpect(jsonPath("$.password").doesNotExist())
+                .andExpect(jsonPath("$.departmentName").value(department.getDepartmentName()))
+                .andReturn();
+        return result.getResponse().getHeader(HttpHeaders.LOCATION);
+    }
+
+    @Test
+    void conditionalGetAnswers304FromTheVersionAlone() throws Exception {
+        String location = create("get-" + suffix);
+
+        mockMvc.perform(get(location))
+                .andExpect(status().isOk())
+                .andExpect(header().stringValues(HttpHeaders.ETAG, "\"0-0\""))
+                .andExpect(jsonPath("$.lastName").value("Doe"))
+                .andExpect(jsonPath("$.password").doesNotExist());
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        MvcResult notModified = mockMvc.perform(get(location).header(HttpHeaders.IF_NONE_MATCH, "\"0-0\""))
+                .andExpect(status().isNotModified())
+                .andReturn();
+        assertThat(notModified.getResponse().getContentAsString()).isEmpty();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+
+        mockMvc.perform(get("/api/employees/{id}", -1)).andExpect(status().isNotFound());
+    }
+
+    @Test
+    void renamingTheDepartmentChangesTheEmployeeTags() throws Exception {
+        String location = create("dept-" + suffix);
+        String listTag = mockMvc.perform(get("/api/employees")).andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        department.setDepartmentName("Renamed-" + suffix);
+        departmentService.updateDepartment(department);
+
+        mockMvc.perform(get(location).header(HttpHeaders.IF_NONE_MATCH, "\"0-0\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"0-1\""))
+                .andExpect(jsonPath("$.departmentName").value("Renamed-" + suffix));
+        mockMvc.perform(get("/api/employees").header(HttpHeaders.IF_NONE_MATCH, listTag))
+                .andExpect(status().isOk());
+        mockMvc.perform(put(location).header(HttpHeaders.IF_MATCH, "\"0-0\"").contentType(MediaType.APPLICATION_JSON).content(json("dept-" + suffix, "Smith")))
+                .andExpect(status().isNoContent())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1-1\""));
+    }
+
+    @Test
+    void updatesRequireAMatchingIfMatch() throws Exception {
+        String location = create("put-" + suffix);
+        String body = json("put-" + suffix, "Smith");
+
+        mockMvc.perform(put(location).contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isPreconditionRequired());
+        mockMvc.perform(put(location).header(HttpHeaders.IF_MATCH, "\"0\"").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isNoContent())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1-0\""));
+        mockMvc.perform(put(location).header(HttpHeaders.IF_MATCH, "\"0\"").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isPreconditionFailed());
+        mockMvc.perform(put("/api/employees/{id}", -1).header(HttpHeaders.IF_MATCH, "\"0\"").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isNotFound());
+
+        mockMvc.perform(get(location).header(HttpHeaders.IF_NONE_MATCH, "\"0\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1-0\""))
+                .andExpect(jsonPath("$.lastName").value("Smith"));
+
+        mockMvc.perform(delete(location).header(HttpHeaders.IF_MATCH, "\"0\"")).andExpect(status().isPreconditionFailed());
+        mockMvc.perform(delete(location).header(HttpHeaders.IF_MATCH, "\"1-0\"")).andExpect(status().isNoContent());
+        mockMvc.perform(delete(location)).andExpect(status().isNotFound());
+    }
+
+    @Test
+    void listHonoursEtagAndLastModified() throws Exception {
+        create("list-" + suffix);
+        MvcResult first = mockMvc.perform(get("/api/employees").param("size", "500"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
+                .andExpect(jsonPath("$[*].userName", hasItem("list-" + suffix)))
+                .andReturn();
+        String etag = first.getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(first.getResponse().getHeaders(HttpHeaders.ETAG)).hasSize(1);
+
+        mockMvc.perform(get("/api/employees").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/api/employees").header(HttpHeaders.IF_MODIFIED_SINCE, first.getResponse().getHeader(HttpHeaders.LAST_MODIFIED)))
+                .andExpect(status().isNotModified());
+
+        create("list2-" + suffix);
+        mockMvc.perform(get("/api/employees").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void nextLinkOnlyWhenAnotherPageFollows() throws Exception {
+        String location = create("page1-" + suffix);
+        create("page2-" + suffix);
+        long first = Long.parseLong(location.substring(location.lastIndexOf('/') + 1));
+
+        // Walk the tail one row at a time: every linked page has a row, and the last full page carries no link
+        String next = "/api/employees?after=" + (first - 1) + "&size=1";
+        int pages = 0;
+        while (next != null) {
+            MvcResult page = mockMvc.perform(get(next))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.length()").value(1))
+                    .andReturn();
+            String link = page.getResponse().getHeader(HttpHeaders.LINK);
+            next = link == null ? null : link.substring(1, link.indexOf('>'));
+            pages++;
+        }
+        assertThat(pages).isGreaterThanOrEqualTo(2);
+
+        String clamped = mockMvc.perform(get("/api/employees").param("after", Long.toString(first - 1)).param("size", "100000"))
+                .andReturn().getResponse().getHeader(HttpHeaders.LINK);
+        assertThat(clamped).satisfiesAnyOf(link -> assertThat(link).isNull(), link -> assertThat(link).contains("&size=500>"));
+    }
+
+    @Test
+    void departmentBeingRemovedTakesNoEmployees() throws Exception {
+        String location = create("pending-" + suffix);
+        assertThat(departmentService.markDepartmentForRemoval(department.getId())).isTrue();
+        try {
+            mockMvc.perform(post("/api/employees").contentType(MediaType.APPLICATION_JSON).content(json("pending2-" + suffix, "Doe")))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.detail").value(EmployeeController.DEPARTMENT_BEING_REMOVED));
+            mockMvc.perform(put(location).header(HttpHeaders.IF_MATCH, "*").contentType(MediaType.APPLICATION_JSON).content(json("pending-" + suffix, "Smith")))
+                    .andExpect(status().isBadRequest());
+        } finally {
+            departmentService.unmarkDepartmentForRemoval(department.getId());
+        }
+    }
+
+    @Test
+    void invalidAndDuplicateEmployeesAreRejected() throws Exception {
+        mockMvc.perform(post("/api/employees").contentType(MediaType.APPLICATION_JSON).content("{\"firstName\":\"John\"}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errors", hasItem("Please Provide Department")));
+
+        create("dup-" + suffix);
+        mockMvc.perform(post("/api/employees").contentType(MediaType.APPLICATION_JSON).content(json("dup-" + suffix, "Doe")))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.detail").value("Email already exists"));
+    }
+}
@@ -0,0 +1,82 @@
+package org.chintanpatel.springbootmanytoone.employee;
+
+import org.chintanpatel.springbootmanytoone.TestFixtures;
+import org.chintanpatel.springbootmanytoone.department.Department;
+import org.chintanpatel.springbootmanytoone.department.DepartmentService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class EmployeeSearchIndexListenerTest {
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private DepartmentService departmentService;
+
+    @Autowired
+    private EmployeeSearchEngine employeeSearchEngine;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Department department;
+
+    private String suffix;
+
+    @BeforeEach
+    void setUp() {
+        suffix = Long.toString(System.nanoTime());
+        department = TestFixtures.department("Index-" + suffix);
+        departmentService.addDepartment(department);
+    }
+
+    private Employee employee(String firstName) {
+        Employee e = TestFixtures.employee(firstName, department);
+        e.setFirstName(firstName);
+        return e;
+    }
+
+    @Test
+    void rolledBackSaveIsNotIndexed() {
+        String name = "rolledback" + suffix;
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            employeeRepository.saveAndFlush(employee(name));
+            assertThat(employeeSearchEngine.searchEmployeeIds(name)).isEmpty();
+            status.setRollbackOnly();
+        });
+        assertThat(employeeSearchEngine.searchEmployeeIds(name)).isEmpty();
+    }
+
+    @Test
+    void committedSaveAndDeleteReachTheIndex() {
+        String name = "committed" + suffix;
+        Long id = new TransactionTemplate(transactionManager).execute(status -> employeeRepository.save(employee(name)).getId());
+        assertThat(employeeSearchEngine.searchEmployeeIds(name)).containsExactly(id);
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            employeeRepository.deleteById(id);
+            employeeRepository.flush();
+            assertThat(employeeSearchEngine.searchEmployeeIds(name)).containsExactly(id);
+        });
+        assertThat(employeeSearchEngine.searchEmployeeIds(name)).isEmpty();
+    }
+
+    @Test
+    void deletingTheDepartmentRemovesItsEmployees() {
+        String name = "cascade" + suffix;
+        Long id = employeeRepository.save(employee(name)).getId();
+        assertThat(employeeSearchEngine.searchEmployeeIds(name)).containsExactly(id);
+
+        departmentService.deleteDepartmentById(department.getId());
+
+        assertThat(employeeSearchEngine.searchEmployeeIds(name)).isEmpty();
+    }
+}
@@ -0,0 +1,137 @@
+package org.chintanpatel.springbootmanytoone.employee;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.chintanpatel.springbootmanytoone.TestFixtures;
+import org.chintanpatel.springbootmanytoone.department.Department;
+import org.chintanpatel.springbootmanytoone.department.DepartmentRepository;
+import org.chintanpatel.springbootmanytoone.department.DepartmentService;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.chintanpatel.springbootmanytoone.TestFixtures.unique;
+
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=true",
+        "spring.jpa.properties.hibernate.cache.use_query_cache=true"
+})
+class EmployeeSecondLevelCacheTest {
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private DepartmentRepository departmentRepository;
+
+    @Autowired
+    private DepartmentService departmentService;
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void employeeAndDepartmentLoadsAreServedFromSecondLevelCache() {
+        Department department = departmentRepository.save(TestFixtures.department(unique("L2")));
+
+        Employee employee = employee(department);
+        employeeRepository.save(employee);
+
+        // first load populates the regions
+        loadWithDepartment(employee.getId());
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        loadWithDepartment(employee.getId());
+        loadWithDepartment(employee.getId());
+
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+        assertThat(statistics.getDomainDataRegionStatistics("employee").getHitCount()).isEqualTo(2);
+        assertThat(statistics.getDomainDataRegionStatistics("department").getHitCount()).isEqualTo(2);
+    }
+
+    @Test
+    void deletingDepartmentEvictsOnlyItsEmployees() {
+        Department department = departmentRepository.save(TestFixtures.department(unique("L2")));
+        Department other = departmentRepository.save(TestFixtures.department(unique("L2")));
+        Employee employee = employeeRepository.save(employee(department));
+        Employee kept = employeeRepository.save(employee(other));
+        loadWithDepartment(employee.getId());
+        loadWithDepartment(kept.getId());
+        assertThat(entityManagerFactory.getCache().contains(Employee.class, employee.getId())).isTrue();
+
+        departmentService.deleteDepartmentById(department.getId());
+
+        assertThat(employeeRepository.findById(employee.getId())).isEmpty();
+        assertThat(entityManagerFactory.getCache().contains(Employee.class, kept.getId())).isTrue();
+    }
+
+    @Test
+    void deletingAnEmployeeEvictsOnlyThatEmployee() {
+        Department department = departmentRepository.save(TestFixtures.department(unique("L2")));
+        Employee deleted = employeeRepository.save(employee(department));
+        Employee kept = employeeRepository.save(employee(department));
+        loadWithDepartment(deleted.getId());
+        loadWithDepartment(kept.getId());
+
+        employeeService.deleteEmployeeById(deleted.getId());
+
+        assertThat(employeeRepository.findById(deleted.getId())).isEmpty();
+        assertThat(entityManagerFactory.getCache().contains(Employee.class, kept.getId())).isTrue();
+    }
+
+    @Test
+    void readerDuringAnEditCannotCacheTheOldRow() {
+        Department department = departmentRepository.save(TestFixtures.department(unique("L2")));
+        Employee employee = employeeRepository.save(employee(department));
+        // Not cached, so the concurrent reader below has to load the row and offer it to the cache
+        entityManagerFactory.getCache().evict(Employee.class, employee.getId());
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            employee.setLastName("Edited");
+            employeeService.updateEmployee(employee);
+            statistics.clear();
+            // Another transaction reads the row while the edit is uncommitted and gets the old last name
+            CompletableFuture.runAsync(() -> loadWithDepartment(employee.getId())).join();
+            assertThat(statistics.getDomainDataRegionStatistics("employee").getPutCount()).isZero();
+        });
+
+        transactionTemplate.executeWithoutResult(status ->
+                assertThat(employeeRepository.findById(employee.getId()).orElseThrow().getLastName()).isEqualTo("Edited"));
+    }
+
+    private Employee employee(Department department) {
+        return TestFixtures.employee(unique("l2"), department);
+    }
+
+    private void loadWithDepartment(Long employeeId) {
+        transactionTemplate.executeWithoutResult(status -> {
+            Employee loaded = employeeRepository.findById(employeeId).orElseThrow();
+            assertThat(loaded.getDepartment().getDepartmentName()).startsWith("L2-");
+        });
+    }
+
+    @Test
+    void departmentListIsServedFromQueryCache() {
+        departmentRepository.findAll();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        departmentRepository.findAll();
+
+        assertThat(statistics.getQueryCacheHitCount()).isEqualTo(1);
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+    }
+}
@@ -1,5 +1,9 @@
 package org.chintanpatel.springbootmanytoone.employee;
 
+import org.chintanpatel.springbootmanytoone.JsonStreamFormat;
+import org.chintanpatel.springbootmanytoone.JsonStreamWriter;
+import org.chintanpatel.springbootmanytoone.department.DepartmentService;
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -7,13 +11,23 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.io.StringReader;
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -22,6 +36,21 @@ class EmployeeServiceImplTest {
     @Mock
     private EmployeeRepository employeeRepository;
 
+    @Mock
+    private EmployeeSearchEngine employeeSearchEngine;
+
+    @Mock
+    private DepartmentService departmentService;
+
+    @Mock
+    private EmployeeImporter employeeImporter;
+
+    @Mock
+    private EmployeeExporter employeeExporter;
+
+    @Mock
+    private JsonStreamWriter jsonStreamWriter;
+
     @InjectMocks
     private EmployeeServiceImpl employeeService;
 
@@ -46,7 +75,18 @@ class EmployeeServiceImplTest {
     @Test
     void addEmployee_delegatesToRepository() {
         employeeService.addEmployee(sample);
-        verify(employeeRepository).save(sample);
+        verify(employeeRepository).saveAndFlush(sample);
+    }
+
+    @Test
+    void addEmployee_uniqueViolations_translatedToMessages() {
+        when(employeeRepository.saveAndFlush(sample))
+                .thenThrow(new DataIntegrityViolationException("dup", new ConstraintViolationException("dup", null, "employee_email_key")))
+                .thenThrow(new DataIntegrityViolationException("dup", new ConstraintViolationException("dup", null, "employee_user_name_key")))
+                .thenThrow(new DataIntegrityViolationException("other", new ConstraintViolationException("other", null, "some_fk")));
+        assertThatThrownBy(() -> employeeService.addEmployee(sample)).isInstanceOf(EmployeeAlreadyExistsException.class).hasMessage("Email already exists");
+        assertThatThrownBy(() -> employeeService.addEmployee(sample)).isInstanceOf(EmployeeAlreadyExistsException.class).hasMessage("User Name already exists");
+        assertThatThrownBy(() -> employeeService.addEmployee(sample)).isInstanceOf(DataIntegrityViolationException.class);
     }
 
     @Test
@@ -55,6 +95,54 @@ class EmployeeServiceImplTest {
         assertThat(employeeService.getAllEmployeeList()).containsExactly(sample);
     }
 
+    private EmployeeRow row(long id) {
+        return new EmployeeRow(id, "John", "Doe", "1234567890", LocalDate.of(2024, 1, 1), new BigDecimal("1000.00"), "johndoe" + id, "IT");
+    }
+
+    @Test
+    void getEmployeePage_firstPage_setsNextCursorWhenMoreRows() {
+        when(employeeRepository.findFirstRows(Limit.of(3))).thenReturn(List.of(row(1), row(2), row(3)));
+        EmployeePage page = employeeService.getEmployeePage(null, null, 2);
+        assertThat(page.rows()).extracting(EmployeeRow::id).containsExactly(1L, 2L);
+        assertThat(page.hasPrevious()).isFalse();
+        assertThat(page.nextCursor()).isEqualTo(2L);
+    }
+
+    @Test
+    void getEmployeePage_after_lastPage_hasNoNextCursor() {
+        when(employeeRepository.findRowsAfter(2L, Limit.of(3))).thenReturn(List.of(row(3)));
+        when(employeeRepository.existsByIdLessThanEqual(2L)).thenReturn(true);
+        EmployeePage page = employeeService.getEmployeePage(2L, null, 2);
+        assertThat(page.rows()).extracting(EmployeeRow::id).containsExactly(3L);
+        assertThat(page.previousCursor()).isEqualTo(3L);
+        assertThat(page.hasNext()).isFalse();
+    }
+
+    @Test
+    void getEmployeePage_afterZero_hasNoPreviousCursor() {
+        when(employeeRepository.findRowsAfter(0L, Limit.of(3))).thenReturn(List.of(row(1), row(2), row(3)));
+        when(employeeRepository.existsByIdLessThanEqual(0L)).thenReturn(false);
+        EmployeePage page = employeeService.getEmployeePage(0L, null, 2);
+        assertThat(page.rows()).extracting(EmployeeRow::id).containsExactly(1L, 2L);
+        assertThat(page.hasPrevious()).isFalse();
+        assertThat(page.nextCursor()).isEqualTo(2L);
+    }
+
+    @Test
+    void getEmployeePage_before_returnsRowsInAscendingOrder() {
+        when(employeeRepository.findRowsBefore(5L, Limit.of(3))).thenReturn(List.of(row(4), row(3), row(2)));
+        EmployeePage page = employeeService.getEmployeePage(null, 5L, 2);
+        assertThat(page.rows()).extracting(EmployeeRow::id).containsExactly(3L, 4L);
+        assertThat(page.previousCursor()).isEqualTo(3L);
+        assertThat(page.nextCursor()).isEqualTo(4L);
+    }
+
+    @Test
+    void getEmployeePage_clampsPageSize() {
+        when(employeeRepository.findFirstRows(Limit.of(EmployeeService.MAX_PAGE_SIZE + 1))).thenReturn(List.of());
+        assertThat(employeeService.getEmployeePage(null, null, 100_000).size()).isEqualTo(EmployeeService.MAX_PAGE_SIZE);
+    }
+
     @Test
     void getEmployeeById_found_returnsEntity() {
         when(employeeRepository.findById(1L)).thenReturn(Optional.of(sample));
@@ -68,31 +156,94 @@ class EmployeeServiceImplTest {
     }
 
     @Test
-    void updateEmployee_delegatesToRepository() {
+    void updateEmployee_singleVersionedUpdate() {
+        sample.setVersion(3L);
+        when(employeeRepository.updateIfVersionMatches(sample)).thenReturn(1);
         employeeService.updateEmployee(sample);
-        verify(employeeRepository).save(sample);
+        verify(employeeRepository, never()).findById(any());
+        verify(employeeRepository, never()).save(any());
+        verify(employeeSearchEngine).index(sample);
     }
 
     @Test
-    void deleteEmployeeById_delegatesToRepository() {
-        employeeService.deleteEmployeeById(99L);
-        verify(employeeRepository).deleteById(99L);
+    void updateEmployee_staleVersion_throwsOptimisticLockingFailure() {
+        sample.setVersion(3L);
+        when(employeeRepository.updateIfVersionMatches(sample)).thenReturn(0);
+        assertThatThrownBy(() -> employeeService.updateEmployee(sample))
+                .isInstanceOf(ObjectOptimisticLockingFailureException.class);
+        verify(employeeSearchEngine, never()).index(any());
     }
 
     @Test
-    void searchEmployeeByEmployeeName_callsRepositoryWithBothNames() {
-        when(employeeRepository.findByFirstNameContainingIgnoreCaseOrLastNameContainingIgnoreCase("jo", "jo"))
-                .thenReturn(List.of(sample));
+    void deleteEmployeeById_singleStatementDelete() {
+        when(employeeRepository.deleteEmployeeById(99L)).thenReturn(1);
+        when(employeeRepository.deleteEmployeeById(98L)).thenReturn(0);
+        assertThat(employeeService.deleteEmployeeById(99L)).isTrue();
+        assertThat(employeeService.deleteEmployeeById(98L)).isFalse();
+        verify(employeeSearchEngine).remove(99L);
+        verify(employeeSearchEngine, never()).remove(98L);
+        verify(employeeRepository, never()).findById(any());
+    }
+
+    @Test
+    void deleteEmployeesByIds_bulkDelete() {
+        when(employeeRepository.deleteEmployeesByIdIn(List.of(1L, 2L))).thenReturn(2);
+        assertThat(employeeService.deleteEmployeesByIds(List.of(1L, 2L))).isEqualTo(2);
+        assertThat(employeeService.deleteEmployeesByIds(List.of())).isZero();
+        verify(employeeRepository).deleteEmployeesByIdIn(List.of(1L, 2L));
+        verify(employeeSearchEngine).remove(1L);
+        verify(employeeSearchEngine).remove(2L);
+    }
+
+    @Test
+    void reassignEmployees_movesAndReindexes() {
+        when(employeeRepository.reassignDepartment(List.of(1L, 2L), 7L)).thenReturn(2);
+        assertThat(employeeService.reassignEmployees(List.of(1L, 2L), 7L)).isEqualTo(2);
+        assertThat(employeeService.reassignEmployees(List.of(), 7L)).isZero();
+        verify(employeeSearchEngine).reassign(List.of(1L, 2L), 7L);
+    }
+
+    @Test
+    void deleteEmployeesByIds_partitionsLargeIdLists() {
+        List<Long> ids = LongStream.rangeClosed(1, 120).boxed().toList();
+        when(employeeRepository.deleteEmployeesByIdIn(anyCollection())).thenAnswer(call -> call.<Collection<Long>>getArgument(0).size());
+        assertThat(employeeService.deleteEmployeesByIds(ids)).isEqualTo(120);
+        verify(employeeRepository).deleteEmployeesByIdIn(ids.subList(0, 50));
+        verify(employeeRepository).deleteEmployeesByIdIn(ids.subList(50, 100));
+        verify(employeeRepository).deleteEmployeesByIdIn(ids.subList(100, 120));
+    }
+
+    @Test
+    void searchEmployeeByEmployeeName_loadsEngineResultsInRankOrder() {
+        Employee other = new Employee();
+        other.setId(2L);
+        when(employeeSearchEngine.searchEmployeeIds("jo")).thenReturn(List.of(2L, 1L));
+        when(employeeRepository.findByIdIn(List.of(2L, 1L))).thenReturn(List.of(sample, other));
         List<Employee> list = employeeService.searchEmployeeByEmployeeName("jo");
-        assertThat(list).containsExactly(sample);
+        assertThat(list).containsExactly(other, sample);
     }
 
     @Test
-    void searchEmployeeByDepartmentName_callsRepository() {
-        when(employeeRepository.findByDepartmentNameContainingIgnoreCase("it")).thenReturn(List.of(sample));
+    void searchEmployeeByEmployeeName_noMatches_skipsRepository() {
+        when(employeeSearchEngine.searchEmployeeIds("zz")).thenReturn(List.of());
+        assertThat(employeeService.searchEmployeeByEmployeeName("zz")).isEmpty();
+        verifyNoInteractions(employeeRepository);
+    }
+
+    @Test
+    void searchEmployeeByDepartmentName_resolvesDepartmentIdsFirst() {
+        when(departmentService.getDepartmentIdsByDepartmentName("it")).thenReturn(List.of(1L, 3L));
+        when(employeeRepository.findByDepartmentIdIn(List.of(1L, 3L))).thenReturn(List.of(sample));
         assertThat(employeeService.searchEmployeeByDepartmentName("it")).containsExactly(sample);
     }
 
+    @Test
+    void searchEmployeeByDepartmentName_noDepartments_skipsEmployeeQuery() {
+        when(departmentService.getDepartmentIdsByDepartmentName("zz")).thenReturn(List.of());
+        assertThat(employeeService.searchEmployeeByDepartmentName("zz")).isEmpty();
+        verifyNoInteractions(employeeRepository);
+    }
+
     @Test
     void isEmailExist_delegatesToRepository() {
         when(employeeRepository.existsByEmail("a@b.com")).thenReturn(true);
@@ -104,4 +255,41 @@ class EmployeeServiceImplTest {
         when(employeeRepository.existsByUserName("uname")).thenReturn(false);
         assertThat(employeeService.isUserNameExist("uname")).isFalse();
     }
+
+    @Test
+    void importEmployees_delegatesToImporter() {
+        StringReader reader = new StringReader("");
+        EmployeeImportReport report = new EmployeeImportReport(0, 0, List.of());
+        when(employeeImporter.importEmployees(reader, EmployeeFileFormat.CSV)).thenReturn(report);
+        assertThat(employeeService.importEmployees(reader, EmployeeFileFormat.CSV)).isSameAs(report);
+    }
+
+    @Test
+    void exportEmployees_delegatesToExporter() {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        when(employeeExporter.exportEmployees(output, EmployeeFileFormat.CSV)).thenReturn(3L);
+        assertThat(employeeService.exportEmployees(output, EmployeeFileFormat.CSV)).isEqualTo(3L);
+    }
+
+    @Test
+    void streamEmployeesByDepartmentName_noMatchingDepartment_skipsEmployeeQuery() {
+        when(departmentService.getDepartmentIdsByDepartmentName("none")).thenReturn(List.of());
+        employeeService.streamEmployeesByDepartmentName("none", OutputStream.nullOutputStream(), JsonStreamFormat.NDJSON);
+        verify(employeeRepository, never()).findRowsByDepartmentIdInAfter(any(), any(), any());
+        verify(jsonStreamWriter).write(any(), any(), eq(JsonStreamFormat.NDJSON));
+    }
+
+    @Test
+    void streamEmployees_readsKeysetChunksUntilAShortOne() {
+        List<EmployeeRow> full = LongStream.rangeClosed(1, EmployeeServiceImpl.STREAM_CHUNK_SIZE).mapToObj(this::row).toList();
+        List<EmployeeRow> last = List.of(row(EmployeeServiceImpl.STREAM_CHUNK_SIZE + 1));
+        Limit chunk = Limit.of(EmployeeServiceImpl.STREAM_CHUNK_SIZE);
+        when(employeeRepository.findRowsAfter(0L, chunk)).thenReturn(full);
+        when(employeeRepository.findRowsAfter((long) EmployeeServiceImpl.STREAM_CHUNK_SIZE, chunk)).thenReturn(last);
+        when(jsonStreamWriter.write(any(), any(), any())).thenAnswer(call -> call.<Stream<?>>getArgument(0).count());
+
+        assertThat(employeeService.streamEmployees(OutputStream.nullOutputStream(), JsonStreamFormat.NDJSON))
+                .isEqualTo(EmployeeServiceImpl.STREAM_CHUNK_SIZE + 1);
+        verify(employeeRepository, times(2)).findRowsAfter(any(), any());
+    }
 }
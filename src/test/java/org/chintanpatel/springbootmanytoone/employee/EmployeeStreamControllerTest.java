@@ -0,0 +1,115 @@
+package org.chintanpatel.springbootmanytoone.employee;
+
+import org.chintanpatel.springbootmanytoone.JsonStreamFormat;
+import org.chintanpatel.springbootmanytoone.department.Department;
+import org.chintanpatel.springbootmanytoone.department.DepartmentService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+class EmployeeStreamControllerTest {
+
+    @Autowired
+    private WebApplicationContext context;
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Autowired
+    private DepartmentService departmentService;
+
+    private MockMvc mockMvc;
+
+    private Department department;
+
+    private Employee first;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(context).build();
+        department = new Department();
+        department.setDepartmentName("Stream" + System.nanoTime());
+        departmentService.addDepartment(department);
+        for (int i = 0; i < 3; i++) {
+            Employee e = new Employee();
+            e.setFirstName("Streamer" + i);
+            e.setMiddleName("Q");
+            e.setLastName("Doe");
+            e.setAddress("123 Street");
+            e.setEmail("stream" + i + "-" + department.getId() + "@acme.com");
+            e.setMobileNumber("9999999999");
+            e.setHiringDate(LocalDate.of(2024, 1, 1));
+            e.setSalary(new BigDecimal("1000.00"));
+            e.setUserName("stream" + i + "-" + department.getId());
+            e.setPassword("password8");
+            e.setDepartment(department);
+            employeeService.addEmployee(e);
+            if (first == null) {
+                first = e;
+            }
+        }
+    }
+
+    private String body(String url, String param, String value, MediaType accept) throws Exception {
+        MvcResult started = mockMvc.perform(get(url).param(param, value).accept(accept))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(accept))
+                .andReturn().getResponse().getContentAsString();
+    }
+
+    @Test
+    void departmentSearchStreamsOneJsonObjectPerLine() throws Exception {
+        String body = body("/api/stream/employees/search/departmentName", "departmentName", department.getDepartmentName(), MediaType.APPLICATION_NDJSON);
+        assertThat(body.lines()).hasSize(3).allSatisfy(line -> assertThat(line).startsWith("{").contains(department.getDepartmentName()));
+        assertThat(body).doesNotContain("password");
+    }
+
+    @Test
+    void eventStreamFramesEachObjectAsAnEvent() throws Exception {
+        String body = body("/api/stream/employees/search/departmentName", "departmentName", department.getDepartmentName(), MediaType.TEXT_EVENT_STREAM);
+        assertThat(body.split("\n\n")).hasSize(3).allSatisfy(event -> assertThat(event).startsWith("data:{"));
+    }
+
+    @Test
+    void fullListAndNameSearchStream() throws Exception {
+        assertThat(body("/api/stream/employees", "unused", "", MediaType.APPLICATION_NDJSON)).contains("Streamer0");
+        assertThat(body("/api/stream/employees/search/employeeName", "employeeName", "Streamer", MediaType.APPLICATION_NDJSON)).contains("Streamer2");
+    }
+
+    @Test
+    void singleResourcesAreOnlyServedByTheRestApi() throws Exception {
+        mockMvc.perform(get("/api/stream/employees/{id}", first.getId()))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/employees/{id}", first.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.firstName").value("Streamer0"));
+    }
+
+    @Test
+    void acceptHeaderSelectsFraming() {
+        assertThat(JsonStreamFormat.fromAccept(null)).isEqualTo(JsonStreamFormat.NDJSON);
+        assertThat(JsonStreamFormat.fromAccept("*/*")).isEqualTo(JsonStreamFormat.NDJSON);
+        assertThat(JsonStreamFormat.fromAccept("text/event-stream")).isEqualTo(JsonStreamFormat.SERVER_SENT_EVENTS);
+    }
+}
@@ -0,0 +1,70 @@
+package org.chintanpatel.springbootmanytoone.employee;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.chintanpatel.springbootmanytoone.TestFixtures;
+import org.chintanpatel.springbootmanytoone.department.Department;
+import org.chintanpatel.springbootmanytoone.department.DepartmentAlreadyExistsException;
+import org.chintanpatel.springbootmanytoone.department.DepartmentService;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.chintanpatel.springbootmanytoone.TestFixtures.department;
+import static org.chintanpatel.springbootmanytoone.TestFixtures.unique;
+
+@SpringBootTest
+class EmployeeUniqueConstraintTest {
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Autowired
+    private DepartmentService departmentService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Department department;
+
+    private String suffix;
+
+    @BeforeEach
+    void setUp() {
+        suffix = unique("u");
+        department = department("Unique-" + suffix);
+        departmentService.addDepartment(department);
+    }
+
+    private Employee employee(String email, String userName) {
+        Employee e = TestFixtures.employee(userName, department);
+        e.setEmail(email);
+        return e;
+    }
+
+    @Test
+    void createIssuesOneInsertAndDuplicatesAreReportedByField() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        employeeService.addEmployee(employee("u-" + suffix + "@acme.com", "u-" + suffix));
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(1);
+        assertThat(statistics.getQueryExecutionCount()).isZero();
+
+        assertThatThrownBy(() -> employeeService.addEmployee(employee("u-" + suffix + "@acme.com", "other-" + suffix)))
+                .isInstanceOf(EmployeeAlreadyExistsException.class)
+                .hasMessage("Email already exists");
+        assertThatThrownBy(() -> employeeService.addEmployee(employee("other-" + suffix + "@acme.com", "u-" + suffix)))
+                .isInstanceOf(EmployeeAlreadyExistsException.class)
+                .hasMessage("User Name already exists");
+    }
+
+    @Test
+    void duplicateDepartmentNameIsRejectedByTheDatabase() {
+        assertThatThrownBy(() -> departmentService.addDepartment(department("Unique-" + suffix)))
+                .isInstanceOf(DepartmentAlreadyExistsException.class);
+    }
+}
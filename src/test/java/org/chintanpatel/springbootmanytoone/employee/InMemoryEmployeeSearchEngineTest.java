@@ -0,0 +1,86 @@
+package org.chintanpatel.springbootmanytoone.employee;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class InMemoryEmployeeSearchEngineTest {
+
+    @Mock
+    private EmployeeRepository employeeRepository;
+
+    private InMemoryEmployeeSearchEngine searchEngine;
+
+    @BeforeEach
+    void setUp() {
+        searchEngine = new InMemoryEmployeeSearchEngine(employeeRepository, 2);
+        when(employeeRepository.findAllEmployeeNames()).thenReturn(List.of(
+                new EmployeeName(1L, 10L, "Johnny", "Q", "Smith"),
+                new EmployeeName(2L, 10L, "Alice", "Marie", "John"),
+                new EmployeeName(3L, 20L, "Bob", "Lee", "Dojohn"),
+                new EmployeeName(4L, 20L, "Carol", "Ann", "Baker")));
+        searchEngine.rebuild();
+    }
+
+    @Test
+    void search_ranksExactThenPrefixThenInfixMatches() {
+        InMemoryEmployeeSearchEngine unlimited = new InMemoryEmployeeSearchEngine(employeeRepository, 10);
+        unlimited.rebuild();
+        assertThat(unlimited.searchEmployeeIds("JOHN")).containsExactly(2L, 1L, 3L);
+    }
+
+    @Test
+    void search_appliesResultLimit() {
+        assertThat(searchEngine.searchEmployeeIds("john")).containsExactly(2L, 1L);
+    }
+
+    @Test
+    void search_matchesMiddleNameAndShortQueries() {
+        assertThat(searchEngine.searchEmployeeIds("marie")).containsExactly(2L);
+        assertThat(searchEngine.searchEmployeeIds("ba")).containsExactly(4L);
+    }
+
+    @Test
+    void index_and_remove_keepIndexCurrent() {
+        Employee employee = new Employee();
+        employee.setId(4L);
+        employee.setFirstName("Carol");
+        employee.setMiddleName("Ann");
+        employee.setLastName("Johnson");
+        searchEngine.index(employee);
+        assertThat(searchEngine.searchEmployeeIds("baker")).isEmpty();
+        assertThat(searchEngine.searchEmployeeIds("johnson")).containsExactly(4L);
+
+        searchEngine.remove(4L);
+        assertThat(searchEngine.searchEmployeeIds("johnson")).isEmpty();
+    }
+
+    @Test
+    void remove_dropsEmptyPostingSets() {
+        List.of(1L, 2L, 3L, 4L).forEach(searchEngine::remove);
+        assertThat(searchEngine.postingCount()).isZero();
+    }
+
+    @Test
+    void removeByDepartment_dropsOnlyThatDepartmentsEmployees() {
+        searchEngine.removeByDepartment(10L);
+        assertThat(searchEngine.searchEmployeeIds("john")).containsExactly(3L);
+        assertThat(searchEngine.searchEmployeeIds("baker")).containsExactly(4L);
+    }
+
+    @Test
+    void reassign_movesEmployeesOutOfTheRemovedDepartment() {
+        searchEngine.reassign(List.of(1L), 20L);
+        searchEngine.removeByDepartment(10L);
+        assertThat(searchEngine.searchEmployeeIds("johnny")).containsExactly(1L);
+        assertThat(searchEngine.searchEmployeeIds("alice")).isEmpty();
+    }
+}
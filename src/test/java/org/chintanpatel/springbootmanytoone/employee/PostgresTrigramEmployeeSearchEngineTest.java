@@ -0,0 +1,28 @@
+package org.chintanpatel.springbootmanytoone.employee;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class PostgresTrigramEmployeeSearchEngineTest {
+
+    @Mock
+    private EmployeeRepository employeeRepository;
+
+    @Test
+    void search_passesTrimmedTermAndEscapedPattern() {
+        PostgresTrigramEmployeeSearchEngine searchEngine = new PostgresTrigramEmployeeSearchEngine(employeeRepository, 10);
+        when(employeeRepository.searchEmployeeIdsByTrigram("a_b", "%a!_b%", 10)).thenReturn(List.of(7L));
+
+        assertThat(searchEngine.searchEmployeeIds(" a_b ")).containsExactly(7L);
+        verify(employeeRepository).searchEmployeeIdsByTrigram("a_b", "%a!_b%", 10);
+    }
+}